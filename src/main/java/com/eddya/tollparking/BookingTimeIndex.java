@@ -0,0 +1,80 @@
+package com.eddya.tollparking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * This class indexes the active bookings by start time, so that the oldest ones are found
+ * without scanning the whole parking. It is read without lock (skip list) and updated on booking/release.
+ *
+ * @author Eddy Albert
+ */
+class BookingTimeIndex implements ParkingSlotListener {
+
+    static final Comparator<ParkingSlotState> BY_START_TIME = Comparator
+            .comparingLong(ParkingSlotState::getBookingStartTime)
+            .thenComparing(ParkingSlotState::getId);
+
+    private final NavigableSet<ParkingSlotState> bookings = new ConcurrentSkipListSet<>(BY_START_TIME);
+
+    @Override
+    public void onParkingSlotBooked(ParkingSlot parkingSlot) {
+        bookings.add(ParkingSlotState.of(parkingSlot));
+    }
+
+    @Override
+    public void onParkingSlotReleased(ParkingSlot parkingSlot, long bookingStartTime, long bookedTime) {
+        bookings.remove(new ParkingSlotState(parkingSlot.getId(), parkingSlot.getParkingSlotType(), bookingStartTime));
+    }
+
+    /**
+     * @return the number of active bookings
+     */
+    int size() {
+        return bookings.size();
+    }
+
+    /**
+     * @param booking the booking (parking slot identifier and start time)
+     * @return true if the booking is active
+     */
+    boolean contains(ParkingSlotState booking) {
+        return bookings.contains(booking);
+    }
+
+    /**
+     * @param nbBookings the maximum number of bookings to return
+     * @return the oldest active bookings, the oldest first
+     */
+    List<ParkingSlotState> getOldestBookings(int nbBookings) {
+        List<ParkingSlotState> oldestBookings = new ArrayList<>(Math.min(nbBookings, 64));
+        Iterator<ParkingSlotState> iterator = bookings.iterator();
+        while (oldestBookings.size() < nbBookings && iterator.hasNext()) {
+            oldestBookings.add(iterator.next());
+        }
+        return oldestBookings;
+    }
+
+    /**
+     * @param bookingStartTime the booking start time in seconds since epoch
+     * @return the active bookings started at or before that time, the oldest first
+     */
+    List<ParkingSlotState> getBookingsStartedBefore(long bookingStartTime) {
+        return new ArrayList<>(viewBookingsStartedBefore(bookingStartTime));
+    }
+
+    /**
+     * @param bookingStartTime the booking start time in seconds since epoch
+     * @return a live view (not copied, weakly consistent) of the active bookings started at or before that time,
+     * the oldest first
+     */
+    NavigableSet<ParkingSlotState> viewBookingsStartedBefore(long bookingStartTime) {
+        return Collections.unmodifiableNavigableSet(
+                bookings.headSet(new ParkingSlotState("", null, bookingStartTime + 1), false));
+    }
+}
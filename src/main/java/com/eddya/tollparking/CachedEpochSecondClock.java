@@ -0,0 +1,73 @@
+package com.eddya.tollparking;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A coarse-grained clock: the current epoch second is refreshed by a background ticker
+ * and reading it is a single volatile load (no system call per booking/release).
+ *
+ * @author Eddy Albert
+ */
+public class CachedEpochSecondClock implements EpochSecondClock, AutoCloseable {
+
+    static final long DEFAULT_TICK_PERIOD_IN_MILLIS = 100;
+
+    private final EpochSecondClock source;
+    private final ScheduledExecutorService ticker;
+    private volatile long epochSecond;
+
+    /**
+     * A cached clock refreshed every {@value #DEFAULT_TICK_PERIOD_IN_MILLIS} ms from the system clock.
+     */
+    public CachedEpochSecondClock() {
+        this(new CurrentTimeSupplier(), DEFAULT_TICK_PERIOD_IN_MILLIS);
+    }
+
+    /**
+     * @param source             the clock to cache
+     * @param tickPeriodInMillis the refresh period in ms (i.e. the maximum staleness)
+     */
+    public CachedEpochSecondClock(EpochSecondClock source, long tickPeriodInMillis) {
+        if (tickPeriodInMillis <= 0) {
+            throw new IllegalArgumentException("cannot create the clock, tickPeriodInMillis field is not positive.");
+        }
+        this.source = source;
+        this.epochSecond = source.getEpochSecond();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tollparking-clock-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, tickPeriodInMillis, tickPeriodInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the clock shared by the parkings which have not been given one
+     */
+    static CachedEpochSecondClock getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    void tick() {
+        epochSecond = source.getEpochSecond();
+    }
+
+    @Override
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+
+    /**
+     * Stop the background ticker (the clock then stays frozen).
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private static class DefaultHolder {
+        private static final CachedEpochSecondClock INSTANCE = new CachedEpochSecondClock();
+    }
+}
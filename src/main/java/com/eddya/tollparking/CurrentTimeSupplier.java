@@ -5,11 +5,17 @@ import java.util.function.Supplier;
 
 /**
  * Provide a way to control time.
+ * note: each call reads the system clock, prefer {@link CachedEpochSecondClock} on hot paths.
  */
-public class CurrentTimeSupplier implements Supplier<Instant> {
+public class CurrentTimeSupplier implements Supplier<Instant>, EpochSecondClock {
 
     @Override
     public Instant get() {
         return Instant.now();
     }
+
+    @Override
+    public long getEpochSecond() {
+        return get().getEpochSecond();
+    }
 }
@@ -0,0 +1,91 @@
+package com.eddya.tollparking;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class accumulates the energy delivered on an electric parking slot during a booking, from the power samples
+ * sent by its charger. A sample gives the average power since the previous sample of the session (the booking start
+ * for the first one).
+ * The samples are recorded without lock (a CAS on the last sample time, then a striped adder). Each booking gets its
+ * own session, so a sample recorded while the slot is released and booked again cannot be billed to the next booking.
+ *
+ * @author Eddy Albert
+ */
+final class EnergyMeter {
+
+    static final long MAX_SAMPLE_INTERVAL = 60_000; // in ms, a longer gap (e.g. charger offline) is not billed.
+
+    private static final long MILLIJOULES_PER_WATT_HOUR = 3_600_000L;
+
+    private final AtomicReference<Session> session = new AtomicReference<>(); // null if the slot is not booked.
+
+    /**
+     * Start a metering session (i.e. the parking slot has been booked).
+     *
+     * @param bookingStartTime the booking start time in seconds since epoch (the older samples are ignored)
+     */
+    void open(long bookingStartTime) {
+        session.set(new Session(bookingStartTime * 1000));
+    }
+
+    /**
+     * End the metering session (i.e. the parking slot has been released).
+     * note: a sample recorded concurrently may be left out of the session.
+     *
+     * @return the energy delivered during the session in Wh
+     */
+    long close() {
+        Session closedSession = session.getAndSet(null);
+        return closedSession != null ? closedSession.energyInMilliJoules.sum() / MILLIJOULES_PER_WATT_HOUR : 0;
+    }
+
+    /**
+     * @param sampleTime the sample time in ms since epoch
+     * @param powerInW   the average power in W since the previous sample
+     * @return true if the sample has been recorded, false if there is no session, the sample is older than the
+     * booking or out of order
+     */
+    boolean record(long sampleTime, int powerInW) {
+        Session currentSession = session.get();
+        if (currentSession == null || sampleTime < currentSession.startTime) {
+            return false;
+        }
+        long previousSampleTime;
+        do {
+            previousSampleTime = currentSession.lastSampleTime.get();
+            if (sampleTime <= previousSampleTime) {
+                return false;
+            }
+        } while (!currentSession.lastSampleTime.compareAndSet(previousSampleTime, sampleTime));
+        long billedInterval;
+        if (previousSampleTime == 0) { // the 1st sample gives the power since the booking start.
+            billedInterval = Math.min(sampleTime - currentSession.startTime, MAX_SAMPLE_INTERVAL);
+        } else {
+            long sampleInterval = sampleTime - previousSampleTime;
+            billedInterval = sampleInterval <= MAX_SAMPLE_INTERVAL ? sampleInterval : 0;
+        }
+        currentSession.energyInMilliJoules.add(powerInW * billedInterval); // the session may be closed meanwhile.
+        return true;
+    }
+
+    /**
+     * @return the energy delivered since the session started in Wh
+     */
+    long getEnergyInWh() {
+        Session currentSession = session.get();
+        return currentSession != null ? currentSession.energyInMilliJoules.sum() / MILLIJOULES_PER_WATT_HOUR : 0;
+    }
+
+    private static final class Session {
+
+        private final long startTime; // in ms since epoch.
+        private final AtomicLong lastSampleTime = new AtomicLong(); // 0 until the 1st sample.
+        private final LongAdder energyInMilliJoules = new LongAdder();
+
+        private Session(long startTime) {
+            this.startTime = startTime;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.eddya.tollparking;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class indexes the {@link EnergyMeter} of the electric parking slots by parking slot identifier, so the power
+ * samples can be recorded without holding the parking lock.
+ *
+ * @author Eddy Albert
+ */
+class EnergyMeters implements ParkingSlotListener {
+
+    private final ConcurrentMap<String, EnergyMeter> energyMeters = new ConcurrentHashMap<>();
+
+    @Override
+    public void onParkingSlotAdded(ParkingSlot parkingSlot) {
+        if (parkingSlot.getEnergyMeter() != null) {
+            energyMeters.put(parkingSlot.getId(), parkingSlot.getEnergyMeter());
+        }
+    }
+
+    @Override
+    public void onParkingSlotsAdded(List<ParkingSlot> parkingSlots) {
+        Map<String, EnergyMeter> addedEnergyMeters = new HashMap<>();
+        for (ParkingSlot parkingSlot : parkingSlots) {
+            if (parkingSlot.getEnergyMeter() != null) {
+                addedEnergyMeters.put(parkingSlot.getId(), parkingSlot.getEnergyMeter());
+            }
+        }
+        energyMeters.putAll(addedEnergyMeters); // resizes the map once.
+    }
+
+    @Override
+    public void onParkingSlotRemoved(ParkingSlot parkingSlot) {
+        energyMeters.remove(parkingSlot.getId());
+    }
+
+    /**
+     * @param parkingSlotId the parking slot identifier
+     * @return the {@link EnergyMeter} of the parking slot, null if it does not exist or is not electric
+     */
+    EnergyMeter getEnergyMeter(String parkingSlotId) {
+        return energyMeters.get(parkingSlotId);
+    }
+
+    /**
+     * @param parkingSlotId the parking slot identifier
+     * @param sampleTime    the sample time in ms since epoch
+     * @param powerInW      the average power in W since the previous sample
+     * @return true if the sample has been recorded, false if the parking slot is not a booked electric one or the
+     * sample is out of order
+     */
+    boolean record(String parkingSlotId, long sampleTime, int powerInW) {
+        EnergyMeter energyMeter = energyMeters.get(parkingSlotId);
+        return energyMeter != null && energyMeter.record(sampleTime, powerInW);
+    }
+}
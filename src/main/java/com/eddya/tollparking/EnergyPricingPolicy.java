@@ -0,0 +1,53 @@
+package com.eddya.tollparking;
+
+/**
+ * A pricing policy for electric parking slots: the energy delivered is billed on top of the booked time
+ * (e.g. new EnergyPricingPolicy(new PerHourPricingPolicy(250), 30) bills 2.50 per hour plus 0.30 per kWh).
+ * The energy is measured from the charger power samples (see {@link TollParking#recordPowerSample}).
+ */
+public class EnergyPricingPolicy implements PricingPolicy {
+
+    private final PricingPolicy timePricingPolicy;
+    private final int pricePerKWhInCts;
+
+    /**
+     * @param timePricingPolicy the {@link PricingPolicy} billing the booked time
+     * @param pricePerKWhInCts  the amount per kWh to pay
+     */
+    public EnergyPricingPolicy(PricingPolicy timePricingPolicy, int pricePerKWhInCts) {
+        if (timePricingPolicy == null) {
+            throw new IllegalArgumentException("cannot create the pricing policy, timePricingPolicy field is null.");
+        }
+        if (pricePerKWhInCts < 0) {
+            throw new IllegalArgumentException("cannot create the pricing policy, pricePerKWhInCts field is negative.");
+        }
+        this.timePricingPolicy = timePricingPolicy;
+        this.pricePerKWhInCts = pricePerKWhInCts;
+    }
+
+    PricingPolicy getTimePricingPolicy() {
+        return timePricingPolicy;
+    }
+
+    @Override
+    public int computeBillInCts(long nbSeconds) {
+        return timePricingPolicy.computeBillInCts(nbSeconds);
+    }
+
+    @Override
+    public int computeBillInCts(ParkingSlotType parkingSlotType, long bookingStartTime, long bookingEndTime) {
+        return timePricingPolicy.computeBillInCts(parkingSlotType, bookingStartTime, bookingEndTime);
+    }
+
+    /**
+     * Compute the bill of a stay: the booked time plus the energy delivered.
+     * note: the energy is metered in whole Wh (a started Wh is not paid) and its price is truncated to the cent
+     * (i.e. 1999 Wh at 30 cts per kWh cost 59 cts)
+     */
+    @Override
+    public int computeBillInCts(ParkingSlotType parkingSlotType, long bookingStartTime, long bookingEndTime,
+                                long energyInWh) {
+        return computeBillInCts(parkingSlotType, bookingStartTime, bookingEndTime)
+                + (int) (energyInWh * pricePerKWhInCts / 1000);
+    }
+}
@@ -0,0 +1,15 @@
+package com.eddya.tollparking;
+
+/**
+ * The time source of the parking, with the second precision needed for billing.
+ *
+ * @see CachedEpochSecondClock
+ * @see ManualEpochSecondClock
+ */
+public interface EpochSecondClock {
+
+    /**
+     * @return the current time as a number of seconds since 1970-01-01T00:00:00Z
+     */
+    long getEpochSecond();
+}
@@ -0,0 +1,41 @@
+package com.eddya.tollparking;
+
+/**
+ * A deterministic clock which only moves when asked to (test and simulation purpose).
+ */
+public class ManualEpochSecondClock implements EpochSecondClock {
+
+    private volatile long epochSecond;
+
+    /**
+     * @param epochSecond the initial time in seconds since epoch (must be positive, 0 marks vacant slots)
+     */
+    public ManualEpochSecondClock(long epochSecond) {
+        set(epochSecond);
+    }
+
+    /**
+     * @param epochSecond the new time in seconds since epoch
+     */
+    public synchronized void set(long epochSecond) {
+        if (epochSecond <= 0) {
+            throw new IllegalArgumentException("cannot set the clock, epochSecond field is not positive.");
+        }
+        this.epochSecond = epochSecond;
+    }
+
+    /**
+     * @param nbSeconds the number of seconds to move forward
+     */
+    public synchronized void advance(long nbSeconds) {
+        if (nbSeconds < 0) {
+            throw new IllegalArgumentException("cannot advance the clock, nbSeconds field is negative.");
+        }
+        epochSecond += nbSeconds;
+    }
+
+    @Override
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+}
@@ -0,0 +1,64 @@
+package com.eddya.tollparking;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * This class counts the parking slots and the booked ones by {@link ParkingSlotType}.
+ * The counters are maintained on each change, so reading the occupancy costs no scan nor lock.
+ *
+ * @author Eddy Albert
+ */
+class OccupancyCounters implements ParkingSlotListener {
+
+    private final AtomicIntegerArray nbParkingSlots = new AtomicIntegerArray(ParkingSlotType.values().length);
+    private final AtomicIntegerArray nbBookedParkingSlots = new AtomicIntegerArray(ParkingSlotType.values().length);
+
+    @Override
+    public void onParkingSlotAdded(ParkingSlot parkingSlot) {
+        nbParkingSlots.incrementAndGet(parkingSlot.getParkingSlotType().ordinal());
+    }
+
+    @Override
+    public void onParkingSlotsAdded(List<ParkingSlot> parkingSlots) {
+        int[] nbAddedParkingSlots = new int[nbParkingSlots.length()];
+        for (ParkingSlot parkingSlot : parkingSlots) {
+            nbAddedParkingSlots[parkingSlot.getParkingSlotType().ordinal()]++;
+        }
+        for (int typeIdx = 0; typeIdx < nbAddedParkingSlots.length; typeIdx++) {
+            nbParkingSlots.addAndGet(typeIdx, nbAddedParkingSlots[typeIdx]);
+        }
+    }
+
+    @Override
+    public void onParkingSlotRemoved(ParkingSlot parkingSlot) {
+        nbParkingSlots.decrementAndGet(parkingSlot.getParkingSlotType().ordinal());
+    }
+
+    @Override
+    public void onParkingSlotBooked(ParkingSlot parkingSlot) {
+        nbBookedParkingSlots.incrementAndGet(parkingSlot.getParkingSlotType().ordinal());
+    }
+
+    @Override
+    public void onParkingSlotReleased(ParkingSlot parkingSlot, long bookingStartTime, long bookedTime) {
+        nbBookedParkingSlots.decrementAndGet(parkingSlot.getParkingSlotType().ordinal());
+    }
+
+    int getNbParkingSlot(ParkingSlotType parkingSlotType) {
+        return nbParkingSlots.get(parkingSlotType.ordinal());
+    }
+
+    int getNbBookedParkingSlot(ParkingSlotType parkingSlotType) {
+        return nbBookedParkingSlots.get(parkingSlotType.ordinal());
+    }
+
+    /**
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @return the ratio of booked slots, from 0 to 1 (0 if there is no slot of that type)
+     */
+    double getOccupancyRate(ParkingSlotType parkingSlotType) {
+        int nbParkingSlot = getNbParkingSlot(parkingSlotType);
+        return nbParkingSlot == 0 ? 0 : Math.min(1, (double) getNbBookedParkingSlot(parkingSlotType) / nbParkingSlot);
+    }
+}
@@ -0,0 +1,254 @@
+package com.eddya.tollparking;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A pricing policy: the price per hour rises as a {@link ParkingSlotType} fills up.
+ * Up to the surge threshold, an hour costs the base price. Above, the price grows linearly with the occupancy up to
+ * base price * max multiplier when the type is full. An hour is paid if completed (i.e. 55 min cost 0).
+ * <p>
+ * The prices are recomputed on a background schedule from the occupancy counters of the parking and published as an
+ * immutable {@link RateHistory}: billing reads it once and charges each part of the stay at the price in force.
+ * The policy is attached to the {@link TollParking} it is given to.
+ *
+ * @author Eddy Albert
+ */
+public class OccupancyPricingPolicy implements PricingPolicy, AutoCloseable {
+
+    static final long DEFAULT_RETENTION_IN_SECONDS = 7 * 24 * 3600;
+    private static final ParkingSlotType[] PARKING_SLOT_TYPES = ParkingSlotType.values();
+
+    private final int pricePerHourInCts;
+    private final double surgeThreshold;
+    private final double maxMultiplier;
+    private final long retentionInSeconds;
+    private final AtomicReference<RateHistory> rateHistory;
+
+    private OccupancyCounters occupancyCounters; // set when attached.
+    private EpochSecondClock clock; // set when attached.
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param pricePerHourInCts the base amount per hour to pay
+     * @param surgeThreshold    the occupancy rate (from 0 to 1) above which the price rises (e.g. 0.7)
+     * @param maxMultiplier     the price multiplier when the type is full (e.g. 2.0)
+     */
+    public OccupancyPricingPolicy(int pricePerHourInCts, double surgeThreshold, double maxMultiplier) {
+        this(pricePerHourInCts, surgeThreshold, maxMultiplier, DEFAULT_RETENTION_IN_SECONDS);
+    }
+
+    /**
+     * @param pricePerHourInCts  the base amount per hour to pay
+     * @param surgeThreshold     the occupancy rate (from 0 to 1) above which the price rises (e.g. 0.7)
+     * @param maxMultiplier      the price multiplier when the type is full (e.g. 2.0)
+     * @param retentionInSeconds how long the past prices are kept (older parts of a stay pay the oldest price kept)
+     */
+    public OccupancyPricingPolicy(int pricePerHourInCts, double surgeThreshold, double maxMultiplier,
+                                  long retentionInSeconds) {
+        if (surgeThreshold < 0 || surgeThreshold >= 1) {
+            throw new IllegalArgumentException(
+                    "cannot create the pricing policy, surgeThreshold field is not in [0, 1[.");
+        }
+        if (maxMultiplier < 1) {
+            throw new IllegalArgumentException(
+                    "cannot create the pricing policy, maxMultiplier field is lower than 1.");
+        }
+        this.pricePerHourInCts = pricePerHourInCts;
+        this.surgeThreshold = surgeThreshold;
+        this.maxMultiplier = maxMultiplier;
+        this.retentionInSeconds = retentionInSeconds;
+        int[] basePrices = new int[PARKING_SLOT_TYPES.length];
+        Arrays.fill(basePrices, pricePerHourInCts);
+        this.rateHistory = new AtomicReference<>(new RateHistory(new long[]{0}, new int[][]{basePrices}));
+    }
+
+    int getPricePerHourInCts() {
+        return pricePerHourInCts;
+    }
+
+    /**
+     * Attach the policy to the occupancy of a parking.
+     *
+     * @param occupancyCounters the {@link OccupancyCounters} of the parking
+     * @param clock             the {@link EpochSecondClock} of the parking
+     */
+    synchronized void attach(@NotNull OccupancyCounters occupancyCounters, @NotNull EpochSecondClock clock) {
+        if (this.occupancyCounters != null) {
+            throw new IllegalStateException("cannot attach the pricing policy, it is already attached to a parking.");
+        }
+        this.occupancyCounters = occupancyCounters;
+        this.clock = clock;
+    }
+
+    /**
+     * @param occupancyRate the occupancy rate, from 0 to 1
+     * @return the related price per hour in cts
+     */
+    int getPricePerHourInCts(double occupancyRate) {
+        if (occupancyRate <= surgeThreshold) {
+            return pricePerHourInCts;
+        }
+        double surge = (occupancyRate - surgeThreshold) / (1 - surgeThreshold);
+        return (int) Math.round(pricePerHourInCts * (1 + (maxMultiplier - 1) * surge));
+    }
+
+    /**
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @return the price per hour in force in cts
+     */
+    public int getCurrentPricePerHourInCts(@NotNull ParkingSlotType parkingSlotType) {
+        return rateHistory.get().getLastPrices()[parkingSlotType.ordinal()];
+    }
+
+    /**
+     * Recompute the prices from the current occupancy, and publish them if they changed.
+     */
+    public synchronized void recompute() {
+        if (occupancyCounters == null) {
+            return; // not attached yet, the base price applies.
+        }
+        int[] prices = new int[PARKING_SLOT_TYPES.length];
+        for (ParkingSlotType parkingSlotType : PARKING_SLOT_TYPES) {
+            double occupancyRate = occupancyCounters.getOccupancyRate(parkingSlotType);
+            prices[parkingSlotType.ordinal()] = getPricePerHourInCts(occupancyRate);
+        }
+        RateHistory current = rateHistory.get();
+        if (!Arrays.equals(prices, current.getLastPrices())) {
+            // the wall clock may step backwards: the prices are never published before the last ones.
+            long now = Math.max(clock.getEpochSecond(), current.getLastEffectiveFrom());
+            rateHistory.set(current.append(now, prices, now - retentionInSeconds));
+        }
+    }
+
+    /**
+     * Recompute the prices periodically in background, until closed.
+     *
+     * @param periodInSeconds the period of the recomputations in seconds
+     */
+    public synchronized void start(long periodInSeconds) {
+        if (periodInSeconds <= 0) {
+            throw new IllegalArgumentException(
+                    "cannot start the pricing policy, periodInSeconds field is not positive.");
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("cannot start the pricing policy, it is already started.");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tollparking-occupancy-pricing");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::recompute, 0, periodInSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background recomputations (the prices in force are kept).
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Compute bill according to the booked time in seconds, at the base price (the slot type and the stay time are
+     * unknown).
+     * note: an hour is paid if completed (i.e. 55 min cost 0)
+     *
+     * @param nbSeconds the number of seconds
+     * @return the price in cts
+     */
+    @Override
+    public int computeBillInCts(long nbSeconds) {
+        return (int) (nbSeconds / NB_SECOND_PER_HOUR) * pricePerHourInCts;
+    }
+
+    /**
+     * Compute bill of a stay, each part of the completed hours being charged at the price in force at that time.
+     * note: an hour is paid if completed (i.e. 55 min cost 0)
+     *
+     * @param parkingSlotType  the booked {@link ParkingSlotType}
+     * @param bookingStartTime the booking start time in seconds since epoch
+     * @param bookingEndTime   the booking end time in seconds since epoch
+     * @return the price in cts
+     */
+    @Override
+    public int computeBillInCts(ParkingSlotType parkingSlotType, long bookingStartTime, long bookingEndTime) {
+        long billedEndTime = bookingStartTime
+                + (bookingEndTime - bookingStartTime) / NB_SECOND_PER_HOUR * NB_SECOND_PER_HOUR;
+        return (int) (rateHistory.get().getAmount(parkingSlotType.ordinal(), bookingStartTime, billedEndTime)
+                / NB_SECOND_PER_HOUR);
+    }
+
+    /**
+     * The immutable history of the prices: prices[i] are in force from effectiveFroms[i] to effectiveFroms[i + 1].
+     */
+    static final class RateHistory {
+        private final long[] effectiveFroms;
+        private final int[][] prices; // by type, in cts per hour.
+
+        RateHistory(long[] effectiveFroms, int[][] prices) {
+            this.effectiveFroms = effectiveFroms;
+            this.prices = prices;
+        }
+
+        int[] getLastPrices() {
+            return prices[prices.length - 1];
+        }
+
+        long getLastEffectiveFrom() {
+            return effectiveFroms[effectiveFroms.length - 1];
+        }
+
+        /**
+         * @param effectiveFrom the time the new prices are in force from, in seconds since epoch (not before the
+         *                      last one, the history is sorted)
+         * @param newPrices     the new prices by type
+         * @param retainedFrom  the prices in force before that time are dropped (the first one kept is extended)
+         * @return the new history
+         */
+        RateHistory append(long effectiveFrom, int[] newPrices, long retainedFrom) {
+            int first = 0;
+            while (first + 1 < effectiveFroms.length && effectiveFroms[first + 1] <= retainedFrom) {
+                first++;
+            }
+            int length = effectiveFroms.length - first;
+            if (effectiveFroms[effectiveFroms.length - 1] != effectiveFrom) {
+                length++; // else the prices published in the same second are replaced.
+            }
+            long[] newEffectiveFroms = Arrays.copyOfRange(effectiveFroms, first, first + length);
+            int[][] newPricesHistory = Arrays.copyOfRange(prices, first, first + length);
+            newEffectiveFroms[length - 1] = effectiveFrom;
+            newPricesHistory[length - 1] = newPrices;
+            return new RateHistory(newEffectiveFroms, newPricesHistory);
+        }
+
+        /**
+         * @param typeIdx   the {@link ParkingSlotType} ordinal
+         * @param startTime the start time in seconds since epoch
+         * @param endTime   the end time in seconds since epoch
+         * @return the amount due from start to end time, in cts * seconds per hour
+         */
+        long getAmount(int typeIdx, long startTime, long endTime) {
+            int idx = Arrays.binarySearch(effectiveFroms, startTime);
+            idx = idx >= 0 ? idx : Math.max(0, -idx - 2); // the prices in force at start time.
+            long amount = 0;
+            long segmentStart = startTime;
+            while (segmentStart < endTime) {
+                long segmentEnd = idx + 1 < effectiveFroms.length
+                        ? Math.min(effectiveFroms[idx + 1], endTime) : endTime;
+                amount += (segmentEnd - segmentStart) * prices[idx][typeIdx];
+                segmentStart = segmentEnd;
+                idx++;
+            }
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.eddya.tollparking;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class alerts an {@link OverstayListener} once for each booking exceeding a maximum booked time.
+ * A check only visits the overstaying bookings (read from the {@link BookingTimeIndex}, without scanning the whole
+ * parking nor copying them) and alerts the ones not alerted by a previous check. The alerted bookings are kept until
+ * released, so a check only allocates for the new overstaying ones.
+ *
+ * @author Eddy Albert
+ */
+public class OverstayDetector implements AutoCloseable {
+
+    private final BookingTimeIndex bookingTimeIndex;
+    private final EpochSecondClock clock;
+    private final long maxBookedTime;
+    private final OverstayListener overstayListener;
+
+    private final NavigableSet<ParkingSlotState> alertedBookings = new TreeSet<>(BookingTimeIndex.BY_START_TIME);
+    private ScheduledExecutorService scheduler;
+
+    OverstayDetector(@NotNull BookingTimeIndex bookingTimeIndex, @NotNull EpochSecondClock clock, long maxBookedTime,
+                     @NotNull OverstayListener overstayListener) {
+        this.bookingTimeIndex = bookingTimeIndex;
+        this.clock = clock;
+        this.maxBookedTime = maxBookedTime;
+        this.overstayListener = overstayListener;
+    }
+
+    /**
+     * Alert the bookings which have exceeded the maximum booked time since the previous check.
+     *
+     * @return the number of alerts sent
+     */
+    public synchronized int check() {
+        long now = clock.getEpochSecond();
+        int nbAlerts = 0;
+        alertedBookings.removeIf(booking -> !bookingTimeIndex.contains(booking)); // forget the released bookings.
+        for (ParkingSlotState booking : bookingTimeIndex.viewBookingsStartedBefore(now - maxBookedTime - 1)) {
+            if (alertedBookings.add(booking)) {
+                overstayListener.onOverstay(booking, now - booking.getBookingStartTime());
+                nbAlerts++;
+            }
+        }
+        return nbAlerts;
+    }
+
+    /**
+     * Check periodically in background, until closed.
+     *
+     * @param periodInSeconds the period of the checks in seconds
+     */
+    public synchronized void start(long periodInSeconds) {
+        if (periodInSeconds <= 0) {
+            throw new IllegalArgumentException(
+                    "cannot start the overstay detector, periodInSeconds field is not positive.");
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("cannot start the overstay detector, it is already started.");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tollparking-overstay-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::check, periodInSeconds, periodInSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background checks.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.eddya.tollparking;
+
+/**
+ * Get notified of the vehicles parked for too long.
+ */
+@FunctionalInterface
+public interface OverstayListener {
+
+    /**
+     * @param booking    the booking which exceeds the maximum booked time
+     * @param bookedTime the booked time so far in seconds
+     */
+    void onOverstay(ParkingSlotState booking, long bookedTime);
+}
@@ -3,7 +3,9 @@ package com.eddya.tollparking;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This class manages parking building.
@@ -12,17 +14,63 @@ import java.util.List;
  */
 class ParkingBuilder {
 
-    private static CurrentTimeSupplier currentTimeSupplier = new CurrentTimeSupplier();
+    private final EpochSecondClock clock;
     private final List<ParkingSlot> parkingSlots;
+    private final ParkingSlotListeners parkingSlotListeners;
+    private final ParkingSnapshotPublisher parkingSnapshotPublisher;
+    private final BookingTimeIndex bookingTimeIndex;
+    private final OccupancyCounters occupancyCounters;
+    private final EnergyMeters energyMeters;
 
     ParkingBuilder() {
+        this(CachedEpochSecondClock.getDefault());
+    }
+
+    ParkingBuilder(@NotNull EpochSecondClock clock) {
+        this.clock = clock;
         this.parkingSlots = new ArrayList<>();
+        this.parkingSlotListeners = new ParkingSlotListeners();
+        this.parkingSnapshotPublisher = new ParkingSnapshotPublisher(parkingSlots);
+        this.parkingSlotListeners.add(parkingSnapshotPublisher);
+        this.bookingTimeIndex = new BookingTimeIndex();
+        this.parkingSlotListeners.add(bookingTimeIndex);
+        this.occupancyCounters = new OccupancyCounters();
+        this.parkingSlotListeners.add(occupancyCounters);
+        this.energyMeters = new EnergyMeters();
+        this.parkingSlotListeners.add(energyMeters);
+    }
+
+    EpochSecondClock getClock() {
+        return clock;
     }
 
     List<ParkingSlot> getParkingSlots() {
         return parkingSlots;
     }
 
+    ParkingSlotListeners getParkingSlotListeners() {
+        return parkingSlotListeners;
+    }
+
+    BookingTimeIndex getBookingTimeIndex() {
+        return bookingTimeIndex;
+    }
+
+    OccupancyCounters getOccupancyCounters() {
+        return occupancyCounters;
+    }
+
+    EnergyMeters getEnergyMeters() {
+        return energyMeters;
+    }
+
+    /**
+     * @return an immutable snapshot of the current parking slots (see {@link ParkingSnapshotPublisher})
+     */
+    ParkingSnapshot getParkingSnapshot() {
+        return parkingSnapshotPublisher.getSnapshot();
+    }
+
     /**
      * Add a parking slot.
      * note: this method can be used to alter the parking during its used (e.g. new slot)
@@ -36,13 +84,50 @@ class ParkingBuilder {
         synchronized (parkingSlots) {
             ParkingSlot parkingSlot = parkingSlots.stream().filter(p -> p.getId().equals(id)).findFirst().orElse(null);
             if (parkingSlot == null) {
-                parkingSlots.add(new ParkingSlot(id, parkingSlotType, currentTimeSupplier));
+                parkingSlot = new ParkingSlot(id, parkingSlotType, clock);
+                parkingSlots.add(parkingSlot);
+                parkingSlotListeners.onParkingSlotAdded(parkingSlot);
             } else {
                 throw new ParkingBuilderException("cannot add parking slot " + id + ", the identifier is already assigned.");
             }
         }
     }
 
+    /**
+     * Add all the parking slots of a prebuilt layout at once.
+     * note: unlike successive {@link #addParkingSlot(ParkingSlotType, String)} calls, the identifiers are checked in
+     * a single pass and the slots are handed to the listeners at once (see
+     * {@link ParkingSlotListener#onParkingSlotsAdded(List)}), so each structure is sized and filled once: this is the
+     * fast startup path.
+     *
+     * @param parkingLayoutImage the {@link ParkingLayoutImage} to load
+     * @throws ParkingBuilderException if an identifier is duplicated or already assigned (then nothing is added)
+     */
+    void addParkingSlots(@NotNull ParkingLayoutImage parkingLayoutImage) throws ParkingBuilderException {
+
+        synchronized (parkingSlots) {
+            Set<String> ids = new HashSet<>(2 * (parkingSlots.size() + parkingLayoutImage.size()));
+            for (ParkingSlot parkingSlot : parkingSlots) {
+                ids.add(parkingSlot.getId());
+            }
+            for (int slotIdx = 0; slotIdx < parkingLayoutImage.size(); slotIdx++) {
+                String id = parkingLayoutImage.getId(slotIdx);
+                if (!ids.add(id)) {
+                    throw new ParkingBuilderException(
+                            "cannot add parking slot " + id + ", the identifier is already assigned.");
+                }
+            }
+
+            List<ParkingSlot> addedParkingSlots = new ArrayList<>(parkingLayoutImage.size());
+            for (int slotIdx = 0; slotIdx < parkingLayoutImage.size(); slotIdx++) {
+                addedParkingSlots.add(new ParkingSlot(parkingLayoutImage.getId(slotIdx),
+                        parkingLayoutImage.getParkingSlotType(slotIdx), clock));
+            }
+            parkingSlots.addAll(addedParkingSlots);
+            parkingSlotListeners.onParkingSlotsAdded(addedParkingSlots);
+        }
+    }
+
     /**
      * Remove a parking slot.
      * note: this method can be used to alter the parking during its used (e.g. temporarily unavailable slot)
@@ -59,6 +144,7 @@ class ParkingBuilder {
                     throw new ParkingBuilderException("cannot remove parking slot " + id + ", the parking slot is booked.");
                 }
                 parkingSlots.remove(parkingSlot);
+                parkingSlotListeners.onParkingSlotRemoved(parkingSlot);
             } else {
                 throw new ParkingBuilderException("cannot remove parking slot " + id + ", the parking slot does not exist.");
             }
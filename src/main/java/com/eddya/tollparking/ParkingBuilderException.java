@@ -4,4 +4,8 @@ public class ParkingBuilderException extends Exception {
     public ParkingBuilderException(String message) {
         super(message);
     }
+
+    public ParkingBuilderException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,137 @@
+package com.eddya.tollparking;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A prebuilt parking layout (every slot identifier and type), stored in a binary file which is memory-mapped
+ * at startup.
+ * Format: magic (int), version (int), number of slots (int), then for each slot:
+ * type ordinal (byte), identifier length (short), identifier (UTF-8 bytes).
+ *
+ * @author Eddy Albert
+ */
+final class ParkingLayoutImage {
+
+    static final int MAGIC = 0x54504C49; // "TPLI".
+    static final int VERSION = 1;
+    private static final ParkingSlotType[] PARKING_SLOT_TYPES = ParkingSlotType.values();
+
+    private final ParkingSlotType[] parkingSlotTypes;
+    private final String[] ids;
+
+    private ParkingLayoutImage(ParkingSlotType[] parkingSlotTypes, String[] ids) {
+        this.parkingSlotTypes = parkingSlotTypes;
+        this.ids = ids;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    ParkingSlotType getParkingSlotType(int slotIdx) {
+        return parkingSlotTypes[slotIdx];
+    }
+
+    String getId(int slotIdx) {
+        return ids[slotIdx];
+    }
+
+    /**
+     * Read a layout image.
+     *
+     * @param path the image file
+     * @return the related {@link ParkingLayoutImage}
+     * @throws ParkingBuilderException if the file cannot be read or is not a valid image
+     */
+    static ParkingLayoutImage read(@NotNull Path path) throws ParkingBuilderException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ParkingBuilderException("cannot read parking layout " + path + ", it is too large.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new ParkingBuilderException("cannot read parking layout " + path + ", it is not a layout image.");
+            }
+            int nbSlots = buffer.getInt();
+            if (nbSlots < 0 || (long) nbSlots * 3 > buffer.remaining()) { // a slot takes at least 3 bytes.
+                throw new ParkingBuilderException("cannot read parking layout " + path + ", invalid number of slots "
+                        + nbSlots + ".");
+            }
+            ParkingSlotType[] parkingSlotTypes = new ParkingSlotType[nbSlots];
+            String[] ids = new String[nbSlots];
+            byte[] idBytes = new byte[Short.MAX_VALUE];
+            for (int slotIdx = 0; slotIdx < nbSlots; slotIdx++) {
+                int typeOrdinal = buffer.get();
+                if (typeOrdinal < 0 || typeOrdinal >= PARKING_SLOT_TYPES.length) {
+                    throw new ParkingBuilderException("cannot read parking layout " + path
+                            + ", unknown parking slot type " + typeOrdinal + ".");
+                }
+                parkingSlotTypes[slotIdx] = PARKING_SLOT_TYPES[typeOrdinal];
+                int idLength = buffer.getShort();
+                if (idLength <= 0 || idLength > buffer.remaining()) {
+                    throw new ParkingBuilderException("cannot read parking layout " + path
+                            + ", invalid identifier length " + idLength + ".");
+                }
+                buffer.get(idBytes, 0, idLength);
+                ids[slotIdx] = new String(idBytes, 0, idLength, StandardCharsets.UTF_8);
+            }
+            return new ParkingLayoutImage(parkingSlotTypes, ids);
+        } catch (BufferUnderflowException e) {
+            throw new ParkingBuilderException("cannot read parking layout " + path + ", it is truncated.", e);
+        } catch (IOException e) {
+            throw new ParkingBuilderException("cannot read parking layout " + path + ", " + e + ".", e);
+        }
+    }
+
+    /**
+     * Write a layout image.
+     *
+     * @param path         the image file (replaced if it exists)
+     * @param parkingSlots the parking slots to store
+     * @throws ParkingBuilderException if the file cannot be written
+     */
+    static void write(@NotNull Path path, @NotNull Iterable<ParkingSlotState> parkingSlots)
+            throws ParkingBuilderException {
+        List<byte[]> ids = new ArrayList<>();
+        List<ParkingSlotType> parkingSlotTypes = new ArrayList<>();
+        int size = 12;
+        for (ParkingSlotState parkingSlot : parkingSlots) {
+            byte[] id = parkingSlot.getId().getBytes(StandardCharsets.UTF_8);
+            if (id.length > Short.MAX_VALUE) {
+                throw new ParkingBuilderException("cannot write parking layout " + path + ", identifier "
+                        + parkingSlot.getId() + " is too long.");
+            }
+            ids.add(id);
+            parkingSlotTypes.add(parkingSlot.getParkingSlotType());
+            size += 3 + id.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(ids.size());
+        for (int slotIdx = 0; slotIdx < ids.size(); slotIdx++) {
+            buffer.put((byte) parkingSlotTypes.get(slotIdx).ordinal());
+            buffer.putShort((short) ids.get(slotIdx).length);
+            buffer.put(ids.get(slotIdx));
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new ParkingBuilderException("cannot write parking layout " + path + ", " + e + ".", e);
+        }
+    }
+}
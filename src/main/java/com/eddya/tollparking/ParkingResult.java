@@ -0,0 +1,91 @@
+package com.eddya.tollparking;
+
+/**
+ * A reusable holder for the outcome of the exception-free booking/release API.
+ * note: a holder is overwritten by each call, it is not thread-safe (e.g. use one holder per gate thread).
+ */
+public final class ParkingResult {
+
+    private ParkingResultCode code;
+    private String parkingSlotId;
+    private ParkingSlotType parkingSlotType;
+    private long bookingStartTime;
+    private long bookedTime;
+    private int billInCts;
+    private long energyInWh;
+
+    void reset(ParkingResultCode code) {
+        this.code = code;
+        this.parkingSlotId = null;
+        this.parkingSlotType = null;
+        this.bookingStartTime = 0;
+        this.bookedTime = 0;
+        this.billInCts = 0;
+        this.energyInWh = 0;
+    }
+
+    void setParkingSlot(ParkingSlot parkingSlot) {
+        setParkingSlot(parkingSlot.getId(), parkingSlot.getParkingSlotType());
+    }
+
+    void setParkingSlot(String parkingSlotId, ParkingSlotType parkingSlotType) {
+        this.parkingSlotId = parkingSlotId;
+        this.parkingSlotType = parkingSlotType;
+    }
+
+    void setBooking(long bookingStartTime, long bookedTime) {
+        this.bookingStartTime = bookingStartTime;
+        this.bookedTime = bookedTime;
+    }
+
+    void setBillInCts(int billInCts) {
+        this.billInCts = billInCts;
+    }
+
+    void setEnergyInWh(long energyInWh) {
+        this.energyInWh = energyInWh;
+    }
+
+    public ParkingResultCode getCode() {
+        return code;
+    }
+
+    /**
+     * @return the booked or released parking slot identifier, null if the operation failed
+     */
+    public String getParkingSlotId() {
+        return parkingSlotId;
+    }
+
+    public ParkingSlotType getParkingSlotType() {
+        return parkingSlotType;
+    }
+
+    /**
+     * @return the booking start time in seconds since epoch
+     */
+    public long getBookingStartTime() {
+        return bookingStartTime;
+    }
+
+    /**
+     * @return the booked time in seconds (release only)
+     */
+    public long getBookedTime() {
+        return bookedTime;
+    }
+
+    /**
+     * @return the bill in cts (release only)
+     */
+    public int getBillInCts() {
+        return billInCts;
+    }
+
+    /**
+     * @return the energy delivered in Wh (release of an electric parking slot only)
+     */
+    public long getEnergyInWh() {
+        return energyInWh;
+    }
+}
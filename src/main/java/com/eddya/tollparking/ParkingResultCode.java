@@ -0,0 +1,11 @@
+package com.eddya.tollparking;
+
+/**
+ * Enumerate the outcomes of the exception-free booking/release API.
+ */
+public enum ParkingResultCode {
+    OK, // the operation succeeded.
+    NO_VACANT_SLOT, // no vacant parking slot for the requested type.
+    NOT_BOOKED, // the parking slot (or the vehicle) is not booked or does not exist.
+    VEHICLE_ALREADY_PARKED // the vehicle already has a booked parking slot.
+}
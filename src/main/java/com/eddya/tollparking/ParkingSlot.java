@@ -14,21 +14,24 @@ public class ParkingSlot {
 
     private final String id;
     private final ParkingSlotType parkingSlotType;
-    private final CurrentTimeSupplier currentTimeSupplier;
+    private final EpochSecondClock clock;
+    private final EnergyMeter energyMeter; // null if the parking slot is not electric.
 
     private long bookingStartTime;
+    private long vehicleKey; // the encoded vehicle key (see VehicleKeys), 0 if none.
 
     /**
      * A park slot.
      *
      * @param id              the parking slot identifier (e.g. "C20")
      * @param parkingSlotType the related {@link ParkingSlotType}
+     * @param clock           the {@link EpochSecondClock} used to compute the booking time
      */
-    ParkingSlot(@NotNull String id, @NotNull ParkingSlotType parkingSlotType,
-                @NotNull CurrentTimeSupplier currentTimeSupplier) {
+    ParkingSlot(@NotNull String id, @NotNull ParkingSlotType parkingSlotType, @NotNull EpochSecondClock clock) {
         this.id = id;
         this.parkingSlotType = parkingSlotType;
-        this.currentTimeSupplier = currentTimeSupplier;
+        this.clock = clock;
+        this.energyMeter = parkingSlotType.isElectric() ? new EnergyMeter() : null;
 
         this.bookingStartTime = 0;
     }
@@ -45,6 +48,10 @@ public class ParkingSlot {
         return bookingStartTime;
     }
 
+    EnergyMeter getEnergyMeter() {
+        return energyMeter;
+    }
+
     /**
      * book a {@link ParkingSlot} setting its start time.
      *
@@ -54,7 +61,10 @@ public class ParkingSlot {
         if (!isVacant()) {
             throw new ParkingSlotException("cannot book parking slot " + id + ", it is already booked.");
         }
-        bookingStartTime = currentTimeSupplier.get().getEpochSecond();
+        bookingStartTime = clock.getEpochSecond();
+        if (energyMeter != null) {
+            energyMeter.open(bookingStartTime);
+        }
     }
 
     /**
@@ -67,11 +77,22 @@ public class ParkingSlot {
         if (isVacant()) {
             throw new ParkingSlotException("cannot release parking slot " + id + ", it is not booked.");
         }
-        long bookedTime = currentTimeSupplier.get().getEpochSecond() - bookingStartTime;
+        long bookedTime = clock.getEpochSecond() - bookingStartTime;
         bookingStartTime = 0;
         return bookedTime;
     }
 
+    long getVehicleKey() {
+        return vehicleKey;
+    }
+
+    /**
+     * @param vehicleKey the encoded key of the vehicle parked on the slot (see {@link VehicleKeys}), 0 if none
+     */
+    void setVehicleKey(long vehicleKey) {
+        this.vehicleKey = vehicleKey;
+    }
+
     boolean isVacant() {
         return bookingStartTime == 0;
     }
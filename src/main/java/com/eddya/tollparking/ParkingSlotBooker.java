@@ -13,9 +13,16 @@ import java.util.List;
 class ParkingSlotBooker {
 
     private final List<ParkingSlot> parkingSlots; // the whole set of parking slot.
+    private final ParkingSlotListener parkingSlotListener; // notified of each booking/release.
+    private final VehicleIndex vehicleIndex = new VehicleIndex(); // the booked slots by vehicle.
 
     ParkingSlotBooker(List<ParkingSlot> parkingSlots) {
+        this(parkingSlots, new ParkingSlotListeners());
+    }
+
+    ParkingSlotBooker(List<ParkingSlot> parkingSlots, ParkingSlotListener parkingSlotListener) {
         this.parkingSlots = parkingSlots;
+        this.parkingSlotListener = parkingSlotListener;
     }
 
     /**
@@ -35,11 +42,81 @@ class ParkingSlotBooker {
 
             if (parkingSlot != null) {
                 parkingSlot.book();
+                parkingSlotListener.onParkingSlotBooked(parkingSlot);
             }
             return parkingSlot;
         }
     }
 
+    /**
+     * Book a {@link ParkingSlot}, filling the result under the lock (i.e. a concurrent release cannot alter it).
+     *
+     * @param parkingSlotType the related {@link ParkingSlotType} to book
+     * @param parkingResult   the holder filled with the booked slot
+     * @return {@link ParkingResultCode#OK}, or {@link ParkingResultCode#NO_VACANT_SLOT} if no slot was found
+     * @throws ParkingSlotException if the system failed booking a vacant parking slot (technical issue)
+     */
+    ParkingResultCode getParkingSlot(@NotNull ParkingSlotType parkingSlotType, @NotNull ParkingResult parkingResult)
+            throws ParkingSlotException {
+
+        synchronized (parkingSlots) {
+            ParkingSlot parkingSlot = getParkingSlot(parkingSlotType);
+            if (parkingSlot == null) {
+                parkingResult.reset(ParkingResultCode.NO_VACANT_SLOT);
+                return ParkingResultCode.NO_VACANT_SLOT;
+            }
+            parkingResult.reset(ParkingResultCode.OK);
+            parkingResult.setParkingSlot(parkingSlot);
+            parkingResult.setBooking(parkingSlot.getBookingStartTime(), 0);
+            return ParkingResultCode.OK;
+        }
+    }
+
+    /**
+     * Book a {@link ParkingSlot} for a vehicle, so that it can be released by vehicle.
+     *
+     * @param parkingSlotType the related {@link ParkingSlotType} to book
+     * @param vehicleKey      the encoded vehicle key (see {@link VehicleKeys})
+     * @param parkingResult   the holder filled with the booked slot
+     * @return {@link ParkingResultCode#OK}, {@link ParkingResultCode#NO_VACANT_SLOT} if no slot was found or
+     * {@link ParkingResultCode#VEHICLE_ALREADY_PARKED} if the vehicle already has a booked slot
+     * @throws ParkingSlotException if the system failed booking a vacant parking slot (technical issue)
+     */
+    ParkingResultCode getParkingSlot(@NotNull ParkingSlotType parkingSlotType, long vehicleKey,
+                                     @NotNull ParkingResult parkingResult) throws ParkingSlotException {
+
+        synchronized (parkingSlots) {
+            ParkingSlot parkingSlot = vehicleIndex.get(vehicleKey);
+            if (parkingSlot != null) {
+                parkingResult.reset(ParkingResultCode.VEHICLE_ALREADY_PARKED);
+                parkingResult.setParkingSlot(parkingSlot);
+                return ParkingResultCode.VEHICLE_ALREADY_PARKED;
+            }
+            parkingSlot = getParkingSlot(parkingSlotType);
+            if (parkingSlot == null) {
+                parkingResult.reset(ParkingResultCode.NO_VACANT_SLOT);
+                return ParkingResultCode.NO_VACANT_SLOT;
+            }
+            parkingSlot.setVehicleKey(vehicleKey);
+            vehicleIndex.put(vehicleKey, parkingSlot);
+            parkingResult.reset(ParkingResultCode.OK);
+            parkingResult.setParkingSlot(parkingSlot);
+            parkingResult.setBooking(parkingSlot.getBookingStartTime(), 0);
+            return ParkingResultCode.OK;
+        }
+    }
+
+    /**
+     * Find the {@link ParkingSlot} booked by a vehicle, without lock.
+     *
+     * @param vehicleKey the encoded vehicle key (see {@link VehicleKeys})
+     * @return the booked {@link ParkingSlot}, null if the vehicle has no booking
+     */
+    @Nullable
+    ParkingSlot getParkingSlotByVehicle(long vehicleKey) {
+        return vehicleIndex.get(vehicleKey);
+    }
+
     /**
      * Release a {@link ParkingSlot} based on its identifier
      *
@@ -49,6 +126,25 @@ class ParkingSlotBooker {
      * @throws ParkingSlotBookerException if the parking slot identifier is not booked or does not exist
      */
     long releaseParkingSlot(@NotNull String parkingSlotId) throws ParkingSlotBookerException, ParkingSlotException {
+        ParkingResult parkingResult = new ParkingResult();
+        if (releaseParkingSlot(parkingSlotId, parkingResult) != ParkingResultCode.OK) {
+            throw new ParkingSlotBookerException(
+                    "cannot release parking slot " + parkingSlotId + ", it is not booked or does not exist.");
+        }
+        return parkingResult.getBookedTime();
+    }
+
+    /**
+     * Release a {@link ParkingSlot} based on its identifier, without throwing when it is not booked.
+     *
+     * @param parkingSlotId the parking slot identifier
+     * @param parkingResult the holder filled with the released slot and the booked time
+     * @return {@link ParkingResultCode#OK}, or {@link ParkingResultCode#NOT_BOOKED} if the parking slot identifier
+     * is not booked or does not exist
+     * @throws ParkingSlotException if the system failed releasing a booked parking slot (technical issue)
+     */
+    ParkingResultCode releaseParkingSlot(@NotNull String parkingSlotId, @NotNull ParkingResult parkingResult)
+            throws ParkingSlotException {
 
         synchronized (parkingSlots) {
             ParkingSlot parkingSlot = parkingSlots.stream()
@@ -56,13 +152,50 @@ class ParkingSlotBooker {
                     .findFirst()
                     .orElse(null);
 
-            if (parkingSlot != null) {
-                return parkingSlot.release();
-            } else {
-                throw new ParkingSlotBookerException(
-                        "cannot release parking slot " + parkingSlotId + ", it is not booked or does not exist.");
+            if (parkingSlot == null) {
+                parkingResult.reset(ParkingResultCode.NOT_BOOKED);
+                return ParkingResultCode.NOT_BOOKED;
             }
+            return release(parkingSlot, parkingResult);
+        }
+    }
+
+    /**
+     * Release the {@link ParkingSlot} booked by a vehicle.
+     *
+     * @param vehicleKey    the encoded vehicle key (see {@link VehicleKeys})
+     * @param parkingResult the holder filled with the released slot and the booked time
+     * @return {@link ParkingResultCode#OK}, or {@link ParkingResultCode#NOT_BOOKED} if the vehicle has no booking
+     * @throws ParkingSlotException if the system failed releasing a booked parking slot (technical issue)
+     */
+    ParkingResultCode releaseByVehicle(long vehicleKey, @NotNull ParkingResult parkingResult)
+            throws ParkingSlotException {
+
+        synchronized (parkingSlots) {
+            ParkingSlot parkingSlot = vehicleIndex.get(vehicleKey);
+            if (parkingSlot == null) {
+                parkingResult.reset(ParkingResultCode.NOT_BOOKED);
+                return ParkingResultCode.NOT_BOOKED;
+            }
+            return release(parkingSlot, parkingResult);
+        }
+    }
+
+    private ParkingResultCode release(ParkingSlot parkingSlot, ParkingResult parkingResult)
+            throws ParkingSlotException {
+        long bookingStartTime = parkingSlot.getBookingStartTime();
+        long bookedTime = parkingSlot.release();
+        long energyInWh = parkingSlot.getEnergyMeter() != null ? parkingSlot.getEnergyMeter().close() : 0;
+        if (parkingSlot.getVehicleKey() != 0) {
+            vehicleIndex.remove(parkingSlot.getVehicleKey());
+            parkingSlot.setVehicleKey(0);
         }
+        parkingSlotListener.onParkingSlotReleased(parkingSlot, bookingStartTime, bookedTime);
+        parkingResult.reset(ParkingResultCode.OK);
+        parkingResult.setParkingSlot(parkingSlot);
+        parkingResult.setBooking(bookingStartTime, bookedTime);
+        parkingResult.setEnergyInWh(energyInWh);
+        return ParkingResultCode.OK;
     }
 
     /**
@@ -0,0 +1,43 @@
+package com.eddya.tollparking;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.stream.Stream;
+
+/**
+ * This class handles parking slot queries.
+ * Queries are evaluated lazily on a {@link ParkingSnapshot}, so they never hold the booking lock.
+ *
+ * @author Eddy Albert
+ */
+class ParkingSlotFinder {
+
+    private final ParkingBuilder parkingBuilder;
+
+    ParkingSlotFinder(ParkingBuilder parkingBuilder) {
+        this.parkingBuilder = parkingBuilder;
+    }
+
+    /**
+     * @param query the {@link ParkingSlotQuery}
+     * @return a lazy stream of the matching parking slots
+     */
+    Stream<ParkingSlotState> findParkingSlots(@NotNull ParkingSlotQuery query) {
+        ParkingSnapshot parkingSnapshot = parkingBuilder.getParkingSnapshot();
+        long now = parkingBuilder.getClock().getEpochSecond();
+        ParkingSlotType parkingSlotType = query.getParkingSlotType();
+        Stream<ParkingSlotState> parkingSlots = parkingSlotType != null
+                ? parkingSnapshot.stream(parkingSlotType) : parkingSnapshot.stream();
+        return parkingSlots.filter(p -> query.matches(p, now));
+    }
+
+    /**
+     * @param query    the {@link ParkingSlotQuery}
+     * @param pageSize the maximum number of slots per page
+     * @return the first page of the matching parking slots
+     */
+    ParkingSlotPage findParkingSlots(@NotNull ParkingSlotQuery query, int pageSize) {
+        return ParkingSlotPage.read(parkingBuilder.getParkingSnapshot(), query,
+                parkingBuilder.getClock().getEpochSecond(), pageSize, 0);
+    }
+}
@@ -0,0 +1,38 @@
+package com.eddya.tollparking;
+
+import java.util.List;
+
+/**
+ * Get notified of the parking slot changes (e.g. to maintain an index).
+ * note: notifications are sent while holding the parking slots lock, so they are serialized
+ * and must be quick.
+ */
+interface ParkingSlotListener {
+
+    default void onParkingSlotAdded(ParkingSlot parkingSlot) {
+    }
+
+    /**
+     * @param parkingSlots the parking slots added at once (e.g. a loaded layout), the listener may size its
+     *                     structures once instead of growing them slot by slot
+     */
+    default void onParkingSlotsAdded(List<ParkingSlot> parkingSlots) {
+        for (ParkingSlot parkingSlot : parkingSlots) {
+            onParkingSlotAdded(parkingSlot);
+        }
+    }
+
+    default void onParkingSlotRemoved(ParkingSlot parkingSlot) {
+    }
+
+    default void onParkingSlotBooked(ParkingSlot parkingSlot) {
+    }
+
+    /**
+     * @param parkingSlot      the released {@link ParkingSlot}
+     * @param bookingStartTime the booking start time in seconds since epoch
+     * @param bookedTime       the booked time in seconds
+     */
+    default void onParkingSlotReleased(ParkingSlot parkingSlot, long bookingStartTime, long bookedTime) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.eddya.tollparking;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Forward the parking slot changes to a set of {@link ParkingSlotListener}.
+ */
+class ParkingSlotListeners implements ParkingSlotListener {
+
+    private final List<ParkingSlotListener> listeners = new CopyOnWriteArrayList<>();
+
+    void add(ParkingSlotListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onParkingSlotAdded(ParkingSlot parkingSlot) {
+        for (ParkingSlotListener listener : listeners) {
+            listener.onParkingSlotAdded(parkingSlot);
+        }
+    }
+
+    @Override
+    public void onParkingSlotsAdded(List<ParkingSlot> parkingSlots) {
+        for (ParkingSlotListener listener : listeners) {
+            listener.onParkingSlotsAdded(parkingSlots);
+        }
+    }
+
+    @Override
+    public void onParkingSlotRemoved(ParkingSlot parkingSlot) {
+        for (ParkingSlotListener listener : listeners) {
+            listener.onParkingSlotRemoved(parkingSlot);
+        }
+    }
+
+    @Override
+    public void onParkingSlotBooked(ParkingSlot parkingSlot) {
+        for (ParkingSlotListener listener : listeners) {
+            listener.onParkingSlotBooked(parkingSlot);
+        }
+    }
+
+    @Override
+    public void onParkingSlotReleased(ParkingSlot parkingSlot, long bookingStartTime, long bookedTime) {
+        for (ParkingSlotListener listener : listeners) {
+            listener.onParkingSlotReleased(parkingSlot, bookingStartTime, bookedTime);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.eddya.tollparking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A page of the parking slots matching a {@link ParkingSlotQuery}.
+ * All the pages of a query are read from the same {@link ParkingSnapshot}, so they are consistent with each other
+ * whatever the bookings done in the meantime. A page is computed on demand and holds no lock.
+ */
+public final class ParkingSlotPage {
+
+    private final ParkingSnapshot parkingSnapshot;
+    private final ParkingSlotQuery query;
+    private final long now;
+    private final int pageSize;
+    private final List<ParkingSlotState> parkingSlots;
+    private final int nextIndex; // the index of the next matching slot, -1 if none.
+
+    private ParkingSlotPage(ParkingSnapshot parkingSnapshot, ParkingSlotQuery query, long now, int pageSize,
+                            List<ParkingSlotState> parkingSlots, int nextIndex) {
+        this.parkingSnapshot = parkingSnapshot;
+        this.query = query;
+        this.now = now;
+        this.pageSize = pageSize;
+        this.parkingSlots = parkingSlots;
+        this.nextIndex = nextIndex;
+    }
+
+    /**
+     * Read a page from a snapshot.
+     *
+     * @param parkingSnapshot the {@link ParkingSnapshot} to read
+     * @param query           the {@link ParkingSlotQuery}
+     * @param now             the time the booking ages are computed at, in seconds since epoch
+     * @param pageSize        the maximum number of slots in the page
+     * @param fromIndex       the index to start from in the snapshot
+     * @return the related page
+     */
+    static ParkingSlotPage read(ParkingSnapshot parkingSnapshot, ParkingSlotQuery query, long now, int pageSize,
+                                int fromIndex) {
+        int endIndex = parkingSnapshot.size();
+        ParkingSlotType parkingSlotType = query.getParkingSlotType();
+        if (parkingSlotType != null) { // only scan the slots of that type.
+            int firstIndex = parkingSnapshot.getFirstIndex(parkingSlotType);
+            fromIndex = Math.max(fromIndex, firstIndex);
+            endIndex = firstIndex + parkingSnapshot.size(parkingSlotType);
+        }
+
+        List<ParkingSlotState> parkingSlots = new ArrayList<>(Math.min(pageSize, 64));
+        int nextIndex = -1;
+        for (int index = fromIndex; index < endIndex; index++) {
+            ParkingSlotState parkingSlotState = parkingSnapshot.get(index);
+            if (query.matches(parkingSlotState, now)) {
+                if (parkingSlots.size() == pageSize) {
+                    nextIndex = index;
+                    break;
+                }
+                parkingSlots.add(parkingSlotState);
+            }
+        }
+        return new ParkingSlotPage(parkingSnapshot, query, now, pageSize, Collections.unmodifiableList(parkingSlots),
+                nextIndex);
+    }
+
+    public List<ParkingSlotState> getParkingSlots() {
+        return parkingSlots;
+    }
+
+    /**
+     * @return the version of the parking the page has been read from
+     */
+    public long getVersion() {
+        return parkingSnapshot.getVersion();
+    }
+
+    public boolean hasNext() {
+        return nextIndex >= 0;
+    }
+
+    /**
+     * @return the next page
+     * @throws NoSuchElementException if this page is the last one
+     */
+    public ParkingSlotPage next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("cannot get the next page, this page is the last one.");
+        }
+        return read(parkingSnapshot, query, now, pageSize, nextIndex);
+    }
+}
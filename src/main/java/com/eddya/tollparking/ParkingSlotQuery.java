@@ -0,0 +1,87 @@
+package com.eddya.tollparking;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable filter on parking slots, e.g. the vacant ELECTRIC_20KW slots of level 3:
+ * <pre>
+ * ParkingSlotQuery.all().ofType(ParkingSlotType.ELECTRIC_20KW).vacant().withIdPrefix("L3-")
+ * </pre>
+ */
+public final class ParkingSlotQuery {
+
+    private static final ParkingSlotQuery ALL = new ParkingSlotQuery(null, null, null, -1);
+
+    private final ParkingSlotType parkingSlotType; // null means any type.
+    private final Boolean vacant; // null means any state.
+    private final String idPrefix; // null means any identifier.
+    private final long minBookedTimeInSeconds; // negative means any booking age.
+
+    private ParkingSlotQuery(ParkingSlotType parkingSlotType, Boolean vacant, String idPrefix,
+                             long minBookedTimeInSeconds) {
+        this.parkingSlotType = parkingSlotType;
+        this.vacant = vacant;
+        this.idPrefix = idPrefix;
+        this.minBookedTimeInSeconds = minBookedTimeInSeconds;
+    }
+
+    /**
+     * @return a query matching every parking slot
+     */
+    public static ParkingSlotQuery all() {
+        return ALL;
+    }
+
+    public ParkingSlotQuery ofType(@NotNull ParkingSlotType parkingSlotType) {
+        return new ParkingSlotQuery(parkingSlotType, vacant, idPrefix, minBookedTimeInSeconds);
+    }
+
+    public ParkingSlotQuery vacant() {
+        return new ParkingSlotQuery(parkingSlotType, true, idPrefix, -1);
+    }
+
+    public ParkingSlotQuery booked() {
+        return new ParkingSlotQuery(parkingSlotType, false, idPrefix, minBookedTimeInSeconds);
+    }
+
+    /**
+     * @param idPrefix the beginning of the parking slot identifiers (e.g. "L3-")
+     * @return the query restricted to the matching identifiers
+     */
+    public ParkingSlotQuery withIdPrefix(@NotNull String idPrefix) {
+        return new ParkingSlotQuery(parkingSlotType, vacant, idPrefix, minBookedTimeInSeconds);
+    }
+
+    /**
+     * @param nbSeconds the minimum booked time in seconds (e.g. 86400 for the slots booked for more than 24h)
+     * @return the query restricted to the slots booked for at least that time
+     */
+    public ParkingSlotQuery bookedForAtLeast(long nbSeconds) {
+        if (nbSeconds < 0) {
+            throw new IllegalArgumentException("cannot filter on the booking age, nbSeconds field is negative.");
+        }
+        return new ParkingSlotQuery(parkingSlotType, false, idPrefix, nbSeconds);
+    }
+
+    ParkingSlotType getParkingSlotType() {
+        return parkingSlotType;
+    }
+
+    /**
+     * @param parkingSlotState the {@link ParkingSlotState} to check
+     * @param now              the current time in seconds since epoch
+     * @return true if the parking slot matches the query
+     */
+    boolean matches(ParkingSlotState parkingSlotState, long now) {
+        if (parkingSlotType != null && parkingSlotState.getParkingSlotType() != parkingSlotType) {
+            return false;
+        }
+        if (vacant != null && parkingSlotState.isVacant() != vacant) {
+            return false;
+        }
+        if (idPrefix != null && !parkingSlotState.getId().startsWith(idPrefix)) {
+            return false;
+        }
+        return minBookedTimeInSeconds < 0 || now - parkingSlotState.getBookingStartTime() >= minBookedTimeInSeconds;
+    }
+}
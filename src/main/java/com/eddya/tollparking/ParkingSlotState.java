@@ -0,0 +1,46 @@
+package com.eddya.tollparking;
+
+/**
+ * An immutable view of a parking slot, as published in a {@link ParkingSnapshot}.
+ */
+public final class ParkingSlotState {
+
+    private final String id;
+    private final ParkingSlotType parkingSlotType;
+    private final long bookingStartTime;
+
+    ParkingSlotState(String id, ParkingSlotType parkingSlotType, long bookingStartTime) {
+        this.id = id;
+        this.parkingSlotType = parkingSlotType;
+        this.bookingStartTime = bookingStartTime;
+    }
+
+    static ParkingSlotState of(ParkingSlot parkingSlot) {
+        return new ParkingSlotState(parkingSlot.getId(), parkingSlot.getParkingSlotType(),
+                parkingSlot.getBookingStartTime());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ParkingSlotType getParkingSlotType() {
+        return parkingSlotType;
+    }
+
+    /**
+     * @return the booking start time in seconds since epoch, 0 if the slot is vacant
+     */
+    public long getBookingStartTime() {
+        return bookingStartTime;
+    }
+
+    public boolean isVacant() {
+        return bookingStartTime == 0;
+    }
+
+    @Override
+    public String toString() {
+        return id + "(" + parkingSlotType + (isVacant() ? ", vacant)" : ", booked since " + bookingStartTime + ")");
+    }
+}
@@ -6,5 +6,9 @@ package com.eddya.tollparking;
 public enum ParkingSlotType {
     GASOLINE, // the standard parking slots for sedan cars (gasoline-powered).
     ELECTRIC_20KW, // parking slots with 20kw power supply for electric cars.
-    ELECTRIC_50KW // parking slots with 50kw power supply for electric cars.
+    ELECTRIC_50KW; // parking slots with 50kw power supply for electric cars.
+
+    boolean isElectric() {
+        return this != GASOLINE;
+    }
 }
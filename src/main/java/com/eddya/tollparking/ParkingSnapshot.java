@@ -0,0 +1,155 @@
+package com.eddya.tollparking;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable and consistent view of the whole parking at a given version.
+ * It can be iterated without any lock while the parking keeps on being booked.
+ * The slots are indexed by {@link ParkingSlotType}: the slots of a type are contiguous (in the type declaration order).
+ * note: the slot order within a type is not meaningful and may change between versions.
+ */
+public final class ParkingSnapshot implements Iterable<ParkingSlotState> {
+
+    private static final ParkingSlotType[] PARKING_SLOT_TYPES = ParkingSlotType.values();
+
+    private final long version;
+    private final int[] sizes; // by type.
+    private final ParkingSlotState[][][] chunks; // by type, shared with the other snapshots, never modified.
+    private final int size;
+
+    ParkingSnapshot(long version, int[] sizes, ParkingSlotState[][][] chunks) {
+        this.version = version;
+        this.sizes = sizes;
+        this.chunks = chunks;
+        int total = 0;
+        for (int typeSize : sizes) {
+            total += typeSize;
+        }
+        this.size = total;
+    }
+
+    static ParkingSnapshot empty() {
+        return new ParkingSnapshot(0, new int[PARKING_SLOT_TYPES.length],
+                new ParkingSlotState[PARKING_SLOT_TYPES.length][0][]);
+    }
+
+    /**
+     * @return the parking version, incremented on each change (add, remove, book, release)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the number of parking slots
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @return the number of parking slots having that type
+     */
+    public int size(@NotNull ParkingSlotType parkingSlotType) {
+        return sizes[parkingSlotType.ordinal()];
+    }
+
+    /**
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @return the index of the first slot having that type
+     */
+    int getFirstIndex(@NotNull ParkingSlotType parkingSlotType) {
+        int firstIndex = 0;
+        for (int typeIdx = 0; typeIdx < parkingSlotType.ordinal(); typeIdx++) {
+            firstIndex += sizes[typeIdx];
+        }
+        return firstIndex;
+    }
+
+    /**
+     * @param index the slot index, from 0 to size() - 1
+     * @return the related {@link ParkingSlotState}
+     */
+    public ParkingSlotState get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("cannot get parking slot state " + index + ", size is " + size + ".");
+        }
+        int typeIdx = 0;
+        while (index >= sizes[typeIdx]) {
+            index -= sizes[typeIdx++];
+        }
+        return get(typeIdx, index);
+    }
+
+    private ParkingSlotState get(int typeIdx, int position) {
+        return chunks[typeIdx][position >>> ParkingSnapshotPublisher.CHUNK_SHIFT]
+                [position & ParkingSnapshotPublisher.CHUNK_MASK];
+    }
+
+    ParkingSlotState[] getChunk(ParkingSlotType parkingSlotType, int chunkIdx) {  /* test purpose */
+        return chunks[parkingSlotType.ordinal()][chunkIdx];
+    }
+
+    @NotNull
+    @Override
+    public Iterator<ParkingSlotState> iterator() {
+        return iterator(0, PARKING_SLOT_TYPES.length);
+    }
+
+    /**
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @return an iterator over the slots having that type only
+     */
+    public Iterator<ParkingSlotState> iterator(@NotNull ParkingSlotType parkingSlotType) {
+        return iterator(parkingSlotType.ordinal(), parkingSlotType.ordinal() + 1);
+    }
+
+    private Iterator<ParkingSlotState> iterator(int fromTypeIdx, int toTypeIdx) {
+        return new Iterator<ParkingSlotState>() {
+            private int typeIdx = fromTypeIdx;
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (typeIdx < toTypeIdx && position >= sizes[typeIdx]) {
+                    typeIdx++;
+                    position = 0;
+                }
+                return typeIdx < toTypeIdx;
+            }
+
+            @Override
+            public ParkingSlotState next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(typeIdx, position++);
+            }
+        };
+    }
+
+    public Stream<ParkingSlotState> stream() {
+        return stream(iterator(), size);
+    }
+
+    /**
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @return a stream over the slots having that type only
+     */
+    public Stream<ParkingSlotState> stream(@NotNull ParkingSlotType parkingSlotType) {
+        return stream(iterator(parkingSlotType), size(parkingSlotType));
+    }
+
+    private static Stream<ParkingSlotState> stream(Iterator<ParkingSlotState> iterator, int size) {
+        return StreamSupport.stream(Spliterators.spliterator(iterator, size,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL), false);
+    }
+}
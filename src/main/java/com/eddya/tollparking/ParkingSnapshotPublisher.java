@@ -0,0 +1,176 @@
+package com.eddya.tollparking;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class publishes {@link ParkingSnapshot} of the parking slots.
+ * The slot states are stored by type, in chunks which are copied on write: a new snapshot only copies the chunk
+ * references and shares the untouched chunks with the previous snapshots. A snapshot is published at most
+ * once per parking version, lazily, when a reader asks for it.
+ *
+ * @author Eddy Albert
+ */
+class ParkingSnapshotPublisher implements ParkingSlotListener {
+
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final Object lock; // the lock of the parking slots.
+
+    // -- working state, accessed under the lock.
+    private final Table[] tables; // by type.
+
+    private volatile long version = 0;
+    private volatile ParkingSnapshot published = ParkingSnapshot.empty();
+
+    /**
+     * @param lock the lock held while the parking slots are changed
+     */
+    ParkingSnapshotPublisher(Object lock) {
+        this.lock = lock;
+        this.tables = new Table[ParkingSlotType.values().length];
+        for (int typeIdx = 0; typeIdx < tables.length; typeIdx++) {
+            tables[typeIdx] = new Table();
+        }
+    }
+
+    /**
+     * @return the snapshot of the current parking version
+     */
+    ParkingSnapshot getSnapshot() {
+        ParkingSnapshot snapshot = published;
+        if (snapshot.getVersion() == version) {
+            return snapshot;
+        }
+        synchronized (lock) {
+            if (published.getVersion() != version) {
+                int[] sizes = new int[tables.length];
+                ParkingSlotState[][][] chunks = new ParkingSlotState[tables.length][][];
+                for (int typeIdx = 0; typeIdx < tables.length; typeIdx++) {
+                    sizes[typeIdx] = tables[typeIdx].size;
+                    chunks[typeIdx] = tables[typeIdx].share();
+                }
+                published = new ParkingSnapshot(version, sizes, chunks);
+            }
+            return published;
+        }
+    }
+
+    @Override
+    public void onParkingSlotAdded(ParkingSlot parkingSlot) {
+        tables[parkingSlot.getParkingSlotType().ordinal()].add(ParkingSlotState.of(parkingSlot));
+        version++;
+    }
+
+    @Override
+    public void onParkingSlotsAdded(List<ParkingSlot> parkingSlots) {
+        int[] nbAddedParkingSlots = new int[tables.length];
+        for (ParkingSlot parkingSlot : parkingSlots) {
+            nbAddedParkingSlots[parkingSlot.getParkingSlotType().ordinal()]++;
+        }
+        for (int typeIdx = 0; typeIdx < tables.length; typeIdx++) {
+            tables[typeIdx].ensureCapacity(tables[typeIdx].size + nbAddedParkingSlots[typeIdx]);
+        }
+        for (ParkingSlot parkingSlot : parkingSlots) {
+            tables[parkingSlot.getParkingSlotType().ordinal()].add(ParkingSlotState.of(parkingSlot));
+        }
+        version++;
+    }
+
+    @Override
+    public void onParkingSlotRemoved(ParkingSlot parkingSlot) {
+        tables[parkingSlot.getParkingSlotType().ordinal()].remove(parkingSlot.getId());
+        version++;
+    }
+
+    @Override
+    public void onParkingSlotBooked(ParkingSlot parkingSlot) {
+        update(parkingSlot);
+    }
+
+    @Override
+    public void onParkingSlotReleased(ParkingSlot parkingSlot, long bookingStartTime, long bookedTime) {
+        update(parkingSlot);
+    }
+
+    private void update(ParkingSlot parkingSlot) {
+        tables[parkingSlot.getParkingSlotType().ordinal()].update(ParkingSlotState.of(parkingSlot));
+        version++;
+    }
+
+    /**
+     * The slot states of a type.
+     */
+    private static class Table {
+        private Map<String, Integer> positions = new HashMap<>();
+        private ParkingSlotState[][] chunks = new ParkingSlotState[0][];
+        private boolean[] shared = new boolean[0]; // true if the chunk is referenced by the published snapshot.
+        private int size = 0;
+
+        ParkingSlotState[][] share() {
+            Arrays.fill(shared, true);
+            return chunks.clone();
+        }
+
+        /**
+         * Allocate the chunks and size the positions up front (the new chunks are not shared yet).
+         */
+        void ensureCapacity(int capacity) {
+            int nbChunks = (capacity + CHUNK_MASK) >>> CHUNK_SHIFT;
+            if (nbChunks > chunks.length) {
+                int first = chunks.length;
+                chunks = Arrays.copyOf(chunks, nbChunks);
+                for (int chunkIdx = first; chunkIdx < nbChunks; chunkIdx++) {
+                    chunks[chunkIdx] = new ParkingSlotState[CHUNK_SIZE];
+                }
+                shared = Arrays.copyOf(shared, nbChunks);
+                Map<String, Integer> resizedPositions = new HashMap<>(capacity * 4 / 3 + 1);
+                resizedPositions.putAll(positions);
+                positions = resizedPositions;
+            }
+        }
+
+        void add(ParkingSlotState parkingSlotState) {
+            if (size == chunks.length << CHUNK_SHIFT) {
+                chunks = Arrays.copyOf(chunks, chunks.length + 1);
+                chunks[chunks.length - 1] = new ParkingSlotState[CHUNK_SIZE];
+                shared = Arrays.copyOf(shared, shared.length + 1);
+            }
+            positions.put(parkingSlotState.getId(), size);
+            set(size++, parkingSlotState);
+        }
+
+        void remove(String id) {
+            Integer position = positions.remove(id);
+            if (position != null) {
+                int last = --size;
+                if (position != last) { // move the last slot into the hole.
+                    ParkingSlotState moved = chunks[last >>> CHUNK_SHIFT][last & CHUNK_MASK];
+                    set(position, moved);
+                    positions.put(moved.getId(), position);
+                }
+                set(last, null);
+            }
+        }
+
+        void update(ParkingSlotState parkingSlotState) {
+            Integer position = positions.get(parkingSlotState.getId());
+            if (position != null) {
+                set(position, parkingSlotState);
+            }
+        }
+
+        private void set(int position, ParkingSlotState parkingSlotState) {
+            int chunkIdx = position >>> CHUNK_SHIFT;
+            if (shared[chunkIdx]) {
+                chunks[chunkIdx] = chunks[chunkIdx].clone();
+                shared[chunkIdx] = false;
+            }
+            chunks[chunkIdx][position & CHUNK_MASK] = parkingSlotState;
+        }
+    }
+}
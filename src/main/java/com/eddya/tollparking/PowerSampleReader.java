@@ -0,0 +1,53 @@
+package com.eddya.tollparking;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class reads a stream of charger power samples (e.g. a capture file or a socket), one sample per line:
+ * parkingSlotId,sampleTimeInMs,powerInW (e.g. "E201,1600000000000,18500").
+ *
+ * @author Eddy Albert
+ */
+final class PowerSampleReader {
+
+    private PowerSampleReader() {
+    }
+
+    /**
+     * Record all the samples of a stream, until its end.
+     * note: the malformed lines and the rejected samples (see {@link EnergyMeters#record(String, long, int)}) are
+     * skipped.
+     *
+     * @param inputStream  the sample stream (not closed)
+     * @param energyMeters the {@link EnergyMeters}
+     * @return the number of recorded samples
+     * @throws IOException if the stream cannot be read
+     */
+    static long read(InputStream inputStream, EnergyMeters energyMeters) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        long nbRecordedSamples = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int firstSeparatorIdx = line.indexOf(',');
+            int secondSeparatorIdx = line.indexOf(',', firstSeparatorIdx + 1);
+            if (firstSeparatorIdx <= 0 || secondSeparatorIdx < 0) {
+                continue;
+            }
+            try {
+                long sampleTime = Long.parseLong(line.substring(firstSeparatorIdx + 1, secondSeparatorIdx).trim());
+                int powerInW = Integer.parseInt(line.substring(secondSeparatorIdx + 1).trim());
+                if (powerInW >= 0
+                        && energyMeters.record(line.substring(0, firstSeparatorIdx).trim(), sampleTime, powerInW)) {
+                    nbRecordedSamples++;
+                }
+            } catch (NumberFormatException e) {
+                // skip the malformed line.
+            }
+        }
+        return nbRecordedSamples;
+    }
+}
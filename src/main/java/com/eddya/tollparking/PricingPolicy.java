@@ -11,4 +11,32 @@ public interface PricingPolicy {
      * @return the related bill in cts
      */
     int computeBillInCts(long nbSeconds);
+
+    /**
+     * Compute the bill of a stay, for the policies depending on the slot type or on when the stay happened.
+     * By default, the bill only depends on the number of seconds.
+     *
+     * @param parkingSlotType  the booked {@link ParkingSlotType}
+     * @param bookingStartTime the booking start time in seconds since epoch
+     * @param bookingEndTime   the booking end time in seconds since epoch
+     * @return the related bill in cts
+     */
+    default int computeBillInCts(ParkingSlotType parkingSlotType, long bookingStartTime, long bookingEndTime) {
+        return computeBillInCts(bookingEndTime - bookingStartTime);
+    }
+
+    /**
+     * Compute the bill of a stay, for the policies billing the energy delivered on electric parking slots.
+     * By default, the energy is not billed.
+     *
+     * @param parkingSlotType  the booked {@link ParkingSlotType}
+     * @param bookingStartTime the booking start time in seconds since epoch
+     * @param bookingEndTime   the booking end time in seconds since epoch
+     * @param energyInWh       the energy delivered during the stay in Wh (0 for non electric parking slots)
+     * @return the related bill in cts
+     */
+    default int computeBillInCts(ParkingSlotType parkingSlotType, long bookingStartTime, long bookingEndTime,
+                                 long energyInWh) {
+        return computeBillInCts(parkingSlotType, bookingStartTime, bookingEndTime);
+    }
 }
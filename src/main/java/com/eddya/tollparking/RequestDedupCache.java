@@ -0,0 +1,224 @@
+package com.eddya.tollparking;
+
+/**
+ * This class remembers the outcome of the last booking/release requests, so a retried request (e.g. a gate retrying
+ * on timeout) gets the original result instead of being executed twice.
+ * The cache is split into segments (one lock each), preallocated at creation: the entries are stored in primitive
+ * arrays used as a ring (the oldest entry is evicted to make room, the expired ones are evicted first) and indexed
+ * by an open addressing table. Remembering or finding a request allocates nothing.
+ *
+ * @author Eddy Albert
+ */
+final class RequestDedupCache {
+
+    static final int DEFAULT_CAPACITY = 16384;
+    static final long DEFAULT_RETENTION = 600; // in seconds.
+
+    private static final int NB_SEGMENTS = 16;
+    private static final ParkingResultCode[] PARKING_RESULT_CODES = ParkingResultCode.values();
+    private static final ParkingSlotType[] PARKING_SLOT_TYPES = ParkingSlotType.values();
+
+    enum Operation {
+        BOOK, RELEASE
+    }
+
+    /**
+     * A request, executed with an argument (e.g. the parking slot type to book).
+     */
+    interface Request<A> {
+        ParkingResultCode execute(A argument, ParkingResult parkingResult) throws ParkingSlotException;
+    }
+
+    private final EpochSecondClock clock;
+    private final long retention;
+    private final Segment[] segments = new Segment[NB_SEGMENTS];
+
+    /**
+     * @param clock     the time source used to expire the entries
+     * @param capacity  the maximum number of remembered requests
+     * @param retention the time in seconds a request is remembered
+     */
+    RequestDedupCache(EpochSecondClock clock, int capacity, long retention) {
+        if (capacity < NB_SEGMENTS) {
+            throw new IllegalArgumentException("cannot create the dedup cache, capacity field is less than "
+                    + NB_SEGMENTS + ".");
+        }
+        if (retention <= 0) {
+            throw new IllegalArgumentException("cannot create the dedup cache, retention field is not positive.");
+        }
+        this.clock = clock;
+        this.retention = retention;
+        for (int segmentIdx = 0; segmentIdx < NB_SEGMENTS; segmentIdx++) {
+            segments[segmentIdx] = new Segment((capacity + NB_SEGMENTS - 1) / NB_SEGMENTS);
+        }
+    }
+
+    /**
+     * Execute a request once: if the request identifier is remembered, the original result is copied into the
+     * holder, the request is executed otherwise.
+     * note: a failed request (technical issue) is not remembered, it is executed again when retried. Neither is a
+     * booking which found no slot ({@link ParkingResultCode#OK} only), so a retry may get a slot freed meanwhile. The
+     * other release outcomes are remembered: executed again, a retry could release a later booking of the slot.
+     *
+     * @param requestId     the request identifier
+     * @param operation     the {@link Operation} the identifier is used for
+     * @param parkingResult the holder filled with the (original) result
+     * @param request       the request to execute
+     * @param argument      the request argument
+     * @return the (original) {@link ParkingResultCode}
+     * @throws ParkingSlotException if the request failed (technical issue)
+     */
+    <A> ParkingResultCode execute(long requestId, Operation operation, ParkingResult parkingResult,
+                                  Request<A> request, A argument) throws ParkingSlotException {
+        long hash = mix(requestId);
+        Segment segment = segments[(int) (hash & (NB_SEGMENTS - 1))];
+        synchronized (segment) { // retries of the same request are serialized: only the first one is executed.
+            long now = clock.getEpochSecond();
+            segment.evictExpired(now);
+            int entryIdx = segment.find(requestId, hash);
+            if (entryIdx >= 0) {
+                if (segment.operations[entryIdx] != operation.ordinal()) {
+                    throw new IllegalArgumentException("cannot execute request " + requestId
+                            + ", the identifier has already been used by another operation.");
+                }
+                segment.load(entryIdx, parkingResult);
+                return parkingResult.getCode();
+            }
+            ParkingResultCode parkingResultCode = request.execute(argument, parkingResult);
+            if (operation != Operation.BOOK || parkingResultCode == ParkingResultCode.OK) {
+                segment.store(requestId, hash, operation, now + retention, parkingResult);
+            }
+            return parkingResultCode;
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    private static long mix(long requestId) {  // spread sequential identifiers over the segments and the slots.
+        long hash = requestId * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * The entries are stored in insertion order (i.e. by expiration time) in a ring: the oldest one is at head.
+     * The table maps the request identifiers to their entry (linear probing, entry index + 1, 0 if empty).
+     */
+    private static final class Segment {
+
+        private final long[] requestIds;
+        private final long[] expirationTimes;
+        private final byte[] operations;
+        private final byte[] codes;
+        private final String[] parkingSlotIds; // the identifiers are shared with the parking slots, not copied.
+        private final byte[] parkingSlotTypes; // the type ordinal, -1 if none.
+        private final long[] bookingStartTimes;
+        private final long[] bookedTimes;
+        private final int[] billsInCts;
+        private final long[] energiesInWh;
+        private final int[] table;
+        private final int mask;
+        private int head;
+        private int size;
+
+        private Segment(int capacity) {
+            requestIds = new long[capacity];
+            expirationTimes = new long[capacity];
+            operations = new byte[capacity];
+            codes = new byte[capacity];
+            parkingSlotIds = new String[capacity];
+            parkingSlotTypes = new byte[capacity];
+            bookingStartTimes = new long[capacity];
+            bookedTimes = new long[capacity];
+            billsInCts = new int[capacity];
+            energiesInWh = new long[capacity];
+            table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1]; // at most half full.
+            mask = table.length - 1;
+        }
+
+        private int slot(long hash) {
+            return (int) (hash >>> 4) & mask; // the low bits select the segment.
+        }
+
+        private int find(long requestId, long hash) {
+            for (int slotIdx = slot(hash); table[slotIdx] != 0; slotIdx = (slotIdx + 1) & mask) {
+                if (requestIds[table[slotIdx] - 1] == requestId) {
+                    return table[slotIdx] - 1;
+                }
+            }
+            return -1;
+        }
+
+        private void evictExpired(long now) {
+            while (size > 0 && expirationTimes[head] <= now) {
+                evictHead();
+            }
+        }
+
+        private void store(long requestId, long hash, Operation operation, long expirationTime,
+                           ParkingResult parkingResult) {
+            if (size == requestIds.length) {
+                evictHead();
+            }
+            int entryIdx = (head + size) % requestIds.length;
+            size++;
+            requestIds[entryIdx] = requestId;
+            expirationTimes[entryIdx] = expirationTime;
+            operations[entryIdx] = (byte) operation.ordinal();
+            codes[entryIdx] = (byte) parkingResult.getCode().ordinal();
+            parkingSlotIds[entryIdx] = parkingResult.getParkingSlotId();
+            parkingSlotTypes[entryIdx] = (byte) (parkingResult.getParkingSlotType() != null
+                    ? parkingResult.getParkingSlotType().ordinal() : -1);
+            bookingStartTimes[entryIdx] = parkingResult.getBookingStartTime();
+            bookedTimes[entryIdx] = parkingResult.getBookedTime();
+            billsInCts[entryIdx] = parkingResult.getBillInCts();
+            energiesInWh[entryIdx] = parkingResult.getEnergyInWh();
+            int slotIdx = slot(hash);
+            while (table[slotIdx] != 0) {
+                slotIdx = (slotIdx + 1) & mask;
+            }
+            table[slotIdx] = entryIdx + 1;
+        }
+
+        private void load(int entryIdx, ParkingResult parkingResult) {
+            parkingResult.reset(PARKING_RESULT_CODES[codes[entryIdx]]);
+            parkingResult.setParkingSlot(parkingSlotIds[entryIdx],
+                    parkingSlotTypes[entryIdx] >= 0 ? PARKING_SLOT_TYPES[parkingSlotTypes[entryIdx]] : null);
+            parkingResult.setBooking(bookingStartTimes[entryIdx], bookedTimes[entryIdx]);
+            parkingResult.setBillInCts(billsInCts[entryIdx]);
+            parkingResult.setEnergyInWh(energiesInWh[entryIdx]);
+        }
+
+        private void evictHead() {
+            int entryIdx = head;
+            int slotIdx = slot(mix(requestIds[entryIdx]));
+            while (table[slotIdx] != entryIdx + 1) {
+                slotIdx = (slotIdx + 1) & mask;
+            }
+            // backward shift deletion: move back the entries of the probe sequence which would not be found anymore.
+            table[slotIdx] = 0;
+            for (int nextSlotIdx = (slotIdx + 1) & mask; table[nextSlotIdx] != 0;
+                 nextSlotIdx = (nextSlotIdx + 1) & mask) {
+                int homeSlotIdx = slot(mix(requestIds[table[nextSlotIdx] - 1]));
+                boolean reachable = slotIdx <= nextSlotIdx
+                        ? slotIdx < homeSlotIdx && homeSlotIdx <= nextSlotIdx
+                        : slotIdx < homeSlotIdx || homeSlotIdx <= nextSlotIdx;
+                if (!reachable) {
+                    table[slotIdx] = table[nextSlotIdx];
+                    table[nextSlotIdx] = 0;
+                    slotIdx = nextSlotIdx;
+                }
+            }
+            parkingSlotIds[entryIdx] = null;
+            head = (head + 1) % requestIds.length;
+            size--;
+        }
+    }
+}
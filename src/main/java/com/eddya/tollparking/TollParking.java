@@ -1,5 +1,11 @@
 package com.eddya.tollparking;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * This library handles toll parking.
  * 1. choose a pricing policy,
@@ -11,11 +17,43 @@ public class TollParking {
     private final PricingPolicy pricingPolicy;
     private final ParkingBuilder parkingBuilder;
     private final ParkingSlotBooker parkingSlotBooker;
+    private final ParkingSlotFinder parkingSlotFinder;
+    private final RequestDedupCache requestDedupCache;
+    private final RequestDedupCache.Request<ParkingSlotType> bookRequest = this::tryGetParkingSlot;
+    private final RequestDedupCache.Request<String> releaseRequest = this::tryReleaseParkingSlot;
 
     public TollParking(PricingPolicy pricingPolicy) {
+        this(pricingPolicy, CachedEpochSecondClock.getDefault());
+    }
+
+    /**
+     * @param pricingPolicy the {@link PricingPolicy}
+     * @param clock         the time source used to compute booking times (e.g. a {@link ManualEpochSecondClock})
+     */
+    public TollParking(PricingPolicy pricingPolicy, EpochSecondClock clock) {
+        this(pricingPolicy, clock, RequestDedupCache.DEFAULT_CAPACITY, RequestDedupCache.DEFAULT_RETENTION);
+    }
+
+    /**
+     * @param pricingPolicy  the {@link PricingPolicy}
+     * @param clock          the time source used to compute booking times (e.g. a {@link ManualEpochSecondClock})
+     * @param dedupCapacity  the maximum number of remembered request identifiers (see
+     *                       {@link #tryGetParkingSlot(ParkingSlotType, long, ParkingResult)})
+     * @param dedupRetention the time in seconds a request identifier is remembered
+     */
+    public TollParking(PricingPolicy pricingPolicy, EpochSecondClock clock, int dedupCapacity, long dedupRetention) {
         this.pricingPolicy = pricingPolicy;
-        this.parkingBuilder = new ParkingBuilder();
-        this.parkingSlotBooker = new ParkingSlotBooker(parkingBuilder.getParkingSlots());
+        this.parkingBuilder = new ParkingBuilder(clock);
+        this.parkingSlotBooker = new ParkingSlotBooker(parkingBuilder.getParkingSlots(),
+                parkingBuilder.getParkingSlotListeners());
+        this.parkingSlotFinder = new ParkingSlotFinder(parkingBuilder);
+        this.requestDedupCache = new RequestDedupCache(clock, dedupCapacity, dedupRetention);
+        PricingPolicy timePricingPolicy = pricingPolicy instanceof EnergyPricingPolicy
+                ? ((EnergyPricingPolicy) pricingPolicy).getTimePricingPolicy() : pricingPolicy;
+        if (timePricingPolicy instanceof OccupancyPricingPolicy) {
+            ((OccupancyPricingPolicy) timePricingPolicy).attach(parkingBuilder.getOccupancyCounters(),
+                    parkingBuilder.getClock());
+        }
     }
 
     TollParking(PricingPolicy pricingPolicy,
@@ -24,6 +62,9 @@ public class TollParking {
         this.pricingPolicy = pricingPolicy;
         this.parkingBuilder = parkingBuilder;
         this.parkingSlotBooker = parkingSlotBooker;
+        this.parkingSlotFinder = new ParkingSlotFinder(parkingBuilder);
+        this.requestDedupCache = new RequestDedupCache(parkingBuilder.getClock(), RequestDedupCache.DEFAULT_CAPACITY,
+                RequestDedupCache.DEFAULT_RETENTION);
     }
 
     // --- build your parking.
@@ -59,6 +100,33 @@ public class TollParking {
         parkingBuilder.removeParkingSlot(parkingSlotId);
     }
 
+    /**
+     * This method adds all the parking slots of a layout image (see {@link #saveParkingLayout(Path)}).
+     * note: this is much faster than adding the slots one by one (e.g. to restart a gate controller).
+     *
+     * @param layoutImage the layout image file
+     * @throws ParkingBuilderException if the image cannot be read or an identifier has already been assigned
+     */
+    public void loadParkingLayout(Path layoutImage) throws ParkingBuilderException {
+        if (layoutImage == null) {
+            throw new IllegalArgumentException("cannot load the parking layout, layoutImage field is null.");
+        }
+        parkingBuilder.addParkingSlots(ParkingLayoutImage.read(layoutImage));
+    }
+
+    /**
+     * This method saves the parking slots (identifiers and types, not the bookings) into a layout image.
+     *
+     * @param layoutImage the layout image file (replaced if it exists)
+     * @throws ParkingBuilderException if the image cannot be written
+     */
+    public void saveParkingLayout(Path layoutImage) throws ParkingBuilderException {
+        if (layoutImage == null) {
+            throw new IllegalArgumentException("cannot save the parking layout, layoutImage field is null.");
+        }
+        ParkingLayoutImage.write(layoutImage, parkingBuilder.getParkingSnapshot());
+    }
+
     // -- manage your parking.
 
     /**
@@ -92,7 +160,299 @@ public class TollParking {
         if (parkingSlotId == null || parkingSlotId.isEmpty()) {
             throw new IllegalArgumentException("cannot release the parking slot, parkingSlotId field is null or empty.");
         }
-        return pricingPolicy.computeBillInCts(parkingSlotBooker.releaseParkingSlot(parkingSlotId));
+        ParkingResult parkingResult = new ParkingResult();
+        if (parkingSlotBooker.releaseParkingSlot(parkingSlotId, parkingResult) != ParkingResultCode.OK) {
+            throw new ParkingSlotBookerException(
+                    "cannot release parking slot " + parkingSlotId + ", it is not booked or does not exist.");
+        }
+        return computeBillInCts(parkingResult);
+    }
+
+    /**
+     * Same as {@link #getParkingSlot(ParkingSlotType)} without allocation nor exception when the parking is full
+     * (i.e. a regular outcome at rush hour).
+     *
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @param parkingResult   the holder filled with the booked parking slot (reusable)
+     * @return {@link ParkingResultCode#OK}, or {@link ParkingResultCode#NO_VACANT_SLOT} if no slot was found
+     * @throws ParkingSlotException if the system failed looking for a vacant parking slot (technical issue)
+     */
+    public ParkingResultCode tryGetParkingSlot(ParkingSlotType parkingSlotType, ParkingResult parkingResult)
+            throws ParkingSlotException {
+        if (parkingSlotType == null) {
+            throw new IllegalArgumentException("cannot get the parking slot, parkingSlotType field is null.");
+        }
+        if (parkingResult == null) {
+            throw new IllegalArgumentException("cannot get the parking slot, parkingResult field is null.");
+        }
+        return parkingSlotBooker.getParkingSlot(parkingSlotType, parkingResult);
+    }
+
+    /**
+     * Same as {@link #releaseParkingSlot(String)} without allocation nor exception when the parking slot is not
+     * booked (e.g. a double tap at the exit gate).
+     *
+     * @param parkingSlotId the parking slot identifier (e.g. C20)
+     * @param parkingResult the holder filled with the bill and the booked time (reusable)
+     * @return {@link ParkingResultCode#OK}, or {@link ParkingResultCode#NOT_BOOKED} if the parking slot identifier
+     * is not booked or does not exist
+     * @throws ParkingSlotException if the system failed releasing a booked parking slot (technical issue)
+     */
+    public ParkingResultCode tryReleaseParkingSlot(String parkingSlotId, ParkingResult parkingResult)
+            throws ParkingSlotException {
+        if (parkingSlotId == null || parkingSlotId.isEmpty()) {
+            throw new IllegalArgumentException("cannot release the parking slot, parkingSlotId field is null or empty.");
+        }
+        if (parkingResult == null) {
+            throw new IllegalArgumentException("cannot release the parking slot, parkingResult field is null.");
+        }
+        ParkingResultCode parkingResultCode = parkingSlotBooker.releaseParkingSlot(parkingSlotId, parkingResult);
+        if (parkingResultCode == ParkingResultCode.OK) {
+            parkingResult.setBillInCts(computeBillInCts(parkingResult));
+        }
+        return parkingResultCode;
+    }
+
+    // -- manage your parking with request identifiers (i.e. retried requests are executed once).
+
+    /**
+     * Same as {@link #getParkingSlot(ParkingSlotType)}, executed once per request identifier: a retried request
+     * (e.g. the gate timed out waiting for the answer) returns the originally booked parking slot.
+     *
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @param requestId       the request identifier, unique per request and kept across retries
+     * @return a parking slot identifier if available, null otherwise (i.e. no slot found for that type)
+     * @throws ParkingSlotException if the system failed looking for a vacant parking slot (technical issue)
+     */
+    public String getParkingSlot(ParkingSlotType parkingSlotType, long requestId) throws ParkingSlotException {
+        ParkingResult parkingResult = new ParkingResult();
+        tryGetParkingSlot(parkingSlotType, requestId, parkingResult);
+        return parkingResult.getParkingSlotId();
+    }
+
+    /**
+     * Same as {@link #tryGetParkingSlot(ParkingSlotType, ParkingResult)}, executed once per request identifier.
+     * note: the request identifiers are remembered for a bounded time (10 minutes by default) and number. Only the
+     * successful bookings are remembered: a retry after {@link ParkingResultCode#NO_VACANT_SLOT} looks for a vacant
+     * parking slot again.
+     *
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @param requestId       the request identifier, unique per request and kept across retries
+     * @param parkingResult   the holder filled with the (originally) booked parking slot (reusable)
+     * @return {@link ParkingResultCode#OK}, or {@link ParkingResultCode#NO_VACANT_SLOT} if no slot was found
+     * @throws ParkingSlotException if the system failed looking for a vacant parking slot (technical issue)
+     */
+    public ParkingResultCode tryGetParkingSlot(ParkingSlotType parkingSlotType, long requestId,
+                                               ParkingResult parkingResult) throws ParkingSlotException {
+        if (parkingSlotType == null) {
+            throw new IllegalArgumentException("cannot get the parking slot, parkingSlotType field is null.");
+        }
+        if (parkingResult == null) {
+            throw new IllegalArgumentException("cannot get the parking slot, parkingResult field is null.");
+        }
+        return requestDedupCache.execute(requestId, RequestDedupCache.Operation.BOOK, parkingResult, bookRequest,
+                parkingSlotType);
+    }
+
+    /**
+     * Same as {@link #releaseParkingSlot(String)}, executed once per request identifier: a retried request returns
+     * the original bill instead of failing.
+     *
+     * @param parkingSlotId the parking slot identifier (e.g. C20)
+     * @param requestId     the request identifier, unique per request and kept across retries
+     * @return the related bill
+     * @throws ParkingSlotException       if the system failed releasing a booked parking slot (technical issue)
+     * @throws ParkingSlotBookerException if the parking slot identifier was not booked or does not exist
+     */
+    public int releaseParkingSlot(String parkingSlotId, long requestId)
+            throws ParkingSlotException, ParkingSlotBookerException {
+        ParkingResult parkingResult = new ParkingResult();
+        if (tryReleaseParkingSlot(parkingSlotId, requestId, parkingResult) != ParkingResultCode.OK) {
+            throw new ParkingSlotBookerException(
+                    "cannot release parking slot " + parkingSlotId + ", it is not booked or does not exist.");
+        }
+        return parkingResult.getBillInCts();
+    }
+
+    /**
+     * Same as {@link #tryReleaseParkingSlot(String, ParkingResult)}, executed once per request identifier.
+     * note: the request identifiers are remembered for a bounded time (10 minutes by default) and number, whatever
+     * the outcome: a retry after {@link ParkingResultCode#NOT_BOOKED} returns it again, even if the parking slot has
+     * been booked meanwhile.
+     *
+     * @param parkingSlotId the parking slot identifier (e.g. C20)
+     * @param requestId     the request identifier, unique per request and kept across retries
+     * @param parkingResult the holder filled with the (original) bill and booked time (reusable)
+     * @return {@link ParkingResultCode#OK}, or {@link ParkingResultCode#NOT_BOOKED} if the parking slot identifier
+     * was not booked or does not exist
+     * @throws ParkingSlotException if the system failed releasing a booked parking slot (technical issue)
+     */
+    public ParkingResultCode tryReleaseParkingSlot(String parkingSlotId, long requestId, ParkingResult parkingResult)
+            throws ParkingSlotException {
+        if (parkingSlotId == null || parkingSlotId.isEmpty()) {
+            throw new IllegalArgumentException("cannot release the parking slot, parkingSlotId field is null or empty.");
+        }
+        if (parkingResult == null) {
+            throw new IllegalArgumentException("cannot release the parking slot, parkingResult field is null.");
+        }
+        return requestDedupCache.execute(requestId, RequestDedupCache.Operation.RELEASE, parkingResult,
+                releaseRequest, parkingSlotId);
+    }
+
+    // -- manage your parking by vehicle (licence plate or ticket number).
+
+    /**
+     * This methods asks the system for a vacant parking slot of a given type, booked for a vehicle.
+     * The slot can then be released by vehicle (see {@link #releaseByVehicle(String)}).
+     *
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @param vehicleKey      the licence plate or the ticket number (up to 12 letters/digits, separators ignored)
+     * @return a parking slot identifier if available, null otherwise (i.e. no slot found for that type)
+     * @throws ParkingSlotException       if the system failed looking for a vacant parking slot (technical issue)
+     * @throws ParkingSlotBookerException if the vehicle already has a booked parking slot
+     */
+    public String getParkingSlot(ParkingSlotType parkingSlotType, String vehicleKey)
+            throws ParkingSlotException, ParkingSlotBookerException {
+        ParkingResult parkingResult = new ParkingResult();
+        if (tryGetParkingSlot(parkingSlotType, vehicleKey, parkingResult) == ParkingResultCode.VEHICLE_ALREADY_PARKED) {
+            throw new ParkingSlotBookerException("cannot book a parking slot for vehicle " + vehicleKey
+                    + ", it has already booked parking slot " + parkingResult.getParkingSlotId() + ".");
+        }
+        return parkingResult.getParkingSlotId();
+    }
+
+    /**
+     * Same as {@link #getParkingSlot(ParkingSlotType, String)} without exception.
+     *
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @param vehicleKey      the licence plate or the ticket number (up to 12 letters/digits, separators ignored)
+     * @param parkingResult   the holder filled with the booked parking slot (reusable)
+     * @return {@link ParkingResultCode#OK}, {@link ParkingResultCode#NO_VACANT_SLOT} if no slot was found or
+     * {@link ParkingResultCode#VEHICLE_ALREADY_PARKED} if the vehicle already has a booked parking slot
+     * @throws ParkingSlotException if the system failed looking for a vacant parking slot (technical issue)
+     */
+    public ParkingResultCode tryGetParkingSlot(ParkingSlotType parkingSlotType, String vehicleKey,
+                                               ParkingResult parkingResult) throws ParkingSlotException {
+        if (parkingSlotType == null) {
+            throw new IllegalArgumentException("cannot get the parking slot, parkingSlotType field is null.");
+        }
+        if (vehicleKey == null) {
+            throw new IllegalArgumentException("cannot get the parking slot, vehicleKey field is null.");
+        }
+        if (parkingResult == null) {
+            throw new IllegalArgumentException("cannot get the parking slot, parkingResult field is null.");
+        }
+        return parkingSlotBooker.getParkingSlot(parkingSlotType, VehicleKeys.encode(vehicleKey), parkingResult);
+    }
+
+    /**
+     * This methods asks the system to release the parking slot booked by a vehicle.
+     *
+     * @param vehicleKey the licence plate or the ticket number
+     * @return the related bill
+     * @throws ParkingSlotException       if the system failed releasing a booked parking slot (technical issue)
+     * @throws ParkingSlotBookerException if the vehicle has no booked parking slot
+     */
+    public int releaseByVehicle(String vehicleKey) throws ParkingSlotException, ParkingSlotBookerException {
+        ParkingResult parkingResult = new ParkingResult();
+        if (tryReleaseByVehicle(vehicleKey, parkingResult) != ParkingResultCode.OK) {
+            throw new ParkingSlotBookerException(
+                    "cannot release the parking slot of vehicle " + vehicleKey + ", it has no booked parking slot.");
+        }
+        return parkingResult.getBillInCts();
+    }
+
+    /**
+     * Same as {@link #releaseByVehicle(String)} without exception.
+     *
+     * @param vehicleKey    the licence plate or the ticket number
+     * @param parkingResult the holder filled with the bill and the booked time (reusable)
+     * @return {@link ParkingResultCode#OK}, or {@link ParkingResultCode#NOT_BOOKED} if the vehicle has no booked
+     * parking slot
+     * @throws ParkingSlotException if the system failed releasing a booked parking slot (technical issue)
+     */
+    public ParkingResultCode tryReleaseByVehicle(String vehicleKey, ParkingResult parkingResult)
+            throws ParkingSlotException {
+        if (vehicleKey == null) {
+            throw new IllegalArgumentException("cannot release the parking slot, vehicleKey field is null.");
+        }
+        if (parkingResult == null) {
+            throw new IllegalArgumentException("cannot release the parking slot, parkingResult field is null.");
+        }
+        ParkingResultCode parkingResultCode = parkingSlotBooker.releaseByVehicle(VehicleKeys.encode(vehicleKey),
+                parkingResult);
+        if (parkingResultCode == ParkingResultCode.OK) {
+            parkingResult.setBillInCts(computeBillInCts(parkingResult));
+        }
+        return parkingResultCode;
+    }
+
+    /**
+     * Find the parking slot booked by a vehicle.
+     * note: the lookup is lock-free, it may not see a booking or a release in progress.
+     *
+     * @param vehicleKey the licence plate or the ticket number
+     * @return the parking slot identifier, null if the vehicle has no booked parking slot
+     */
+    public String getParkingSlotIdByVehicle(String vehicleKey) {
+        if (vehicleKey == null) {
+            throw new IllegalArgumentException("cannot find the parking slot, vehicleKey field is null.");
+        }
+        ParkingSlot parkingSlot = parkingSlotBooker.getParkingSlotByVehicle(VehicleKeys.encode(vehicleKey));
+        return parkingSlot != null ? parkingSlot.getId() : null;
+    }
+
+    // -- meter the energy delivered on electric parking slots (billed by an EnergyPricingPolicy).
+
+    /**
+     * Record a power sample sent by the charger of a booked electric parking slot.
+     * note: the samples are recorded without lock, the energy is billed when the parking slot is released.
+     *
+     * @param parkingSlotId the parking slot identifier (e.g. E201)
+     * @param sampleTime    the sample time in ms since epoch
+     * @param powerInW      the average power in W since the previous sample of the charger
+     * @return true if the sample has been recorded, false if the parking slot is not a booked electric one or the
+     * sample is out of order
+     */
+    public boolean recordPowerSample(String parkingSlotId, long sampleTime, int powerInW) {
+        if (parkingSlotId == null) {
+            throw new IllegalArgumentException("cannot record the power sample, parkingSlotId field is null.");
+        }
+        if (powerInW < 0) {
+            throw new IllegalArgumentException("cannot record the power sample, powerInW field is negative.");
+        }
+        return parkingBuilder.getEnergyMeters().record(parkingSlotId, sampleTime, powerInW);
+    }
+
+    /**
+     * Record the power samples of a stream (e.g. a capture file or a socket), one sample per line:
+     * parkingSlotId,sampleTimeInMs,powerInW (e.g. "E201,1600000000000,18500").
+     * note: the stream is read until its end (it is not closed), the malformed lines and the rejected samples are
+     * skipped.
+     *
+     * @param inputStream the sample stream
+     * @return the number of recorded samples
+     * @throws IOException if the stream cannot be read
+     */
+    public long ingestPowerSamples(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("cannot ingest the power samples, inputStream field is null.");
+        }
+        return PowerSampleReader.read(inputStream, parkingBuilder.getEnergyMeters());
+    }
+
+    /**
+     * Get the energy delivered since an electric parking slot has been booked.
+     *
+     * @param parkingSlotId the parking slot identifier (e.g. E201)
+     * @return the energy in Wh, 0 if the parking slot is not a booked electric one
+     */
+    public long getEnergyInWh(String parkingSlotId) {
+        if (parkingSlotId == null) {
+            throw new IllegalArgumentException("cannot get the energy, parkingSlotId field is null.");
+        }
+        EnergyMeter energyMeter = parkingBuilder.getEnergyMeters().getEnergyMeter(parkingSlotId);
+        return energyMeter != null ? energyMeter.getEnergyInWh() : 0;
     }
 
     /**
@@ -107,4 +467,100 @@ public class TollParking {
         }
         return parkingSlotBooker.getNbVacantParkingSlot(parkingSlotType);
     }
+
+    /**
+     * Take an immutable snapshot of the whole parking (every slot, its type and its booking start time).
+     * note: the snapshot can be iterated without lock while the parking keeps on being managed, taking it does not
+     * copy the slots (successive snapshots share the unchanged parts).
+     *
+     * @return the {@link ParkingSnapshot} of the current parking version
+     */
+    public ParkingSnapshot getParkingSnapshot() {
+        return parkingBuilder.getParkingSnapshot();
+    }
+
+    /**
+     * Find the parking slots matching a query (e.g. the slots booked for more than 24h).
+     * note: the stream is lazy and reads a {@link ParkingSnapshot}, it does not hold any lock.
+     *
+     * @param query the {@link ParkingSlotQuery}
+     * @return a lazy stream of the matching parking slots
+     */
+    public Stream<ParkingSlotState> findParkingSlots(ParkingSlotQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("cannot find parking slots, query field is null.");
+        }
+        return parkingSlotFinder.findParkingSlots(query);
+    }
+
+    /**
+     * Find the parking slots matching a query, page by page.
+     * note: all the pages are read from the same {@link ParkingSnapshot}, without holding any lock.
+     *
+     * @param query    the {@link ParkingSlotQuery}
+     * @param pageSize the maximum number of slots per page
+     * @return the first {@link ParkingSlotPage}
+     */
+    public ParkingSlotPage findParkingSlots(ParkingSlotQuery query, int pageSize) {
+        if (query == null) {
+            throw new IllegalArgumentException("cannot find parking slots, query field is null.");
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("cannot find parking slots, pageSize field is not positive.");
+        }
+        return parkingSlotFinder.findParkingSlots(query, pageSize);
+    }
+
+    /**
+     * Get the oldest active bookings.
+     * note: the bookings are indexed by start time, the cost does not depend on the parking size.
+     *
+     * @param nbBookings the maximum number of bookings to return
+     * @return the oldest active bookings, the oldest first
+     */
+    public List<ParkingSlotState> getOldestBookings(int nbBookings) {
+        if (nbBookings < 0) {
+            throw new IllegalArgumentException("cannot get the oldest bookings, nbBookings field is negative.");
+        }
+        return parkingBuilder.getBookingTimeIndex().getOldestBookings(nbBookings);
+    }
+
+    /**
+     * Get the active bookings older than a given booked time (e.g. the vehicles parked for more than 24h).
+     * note: the bookings are indexed by start time, the cost does not depend on the parking size.
+     *
+     * @param nbSeconds the booked time in seconds
+     * @return the active bookings booked for at least that time, the oldest first
+     */
+    public List<ParkingSlotState> getBookingsOlderThan(long nbSeconds) {
+        if (nbSeconds < 0) {
+            throw new IllegalArgumentException("cannot get the old bookings, nbSeconds field is negative.");
+        }
+        return parkingBuilder.getBookingTimeIndex().getBookingsStartedBefore(
+                parkingBuilder.getClock().getEpochSecond() - nbSeconds);
+    }
+
+    /**
+     * Create an {@link OverstayDetector}, to be checked on demand or started in background.
+     *
+     * @param maxBookedTime    the maximum booked time in seconds
+     * @param overstayListener the {@link OverstayListener} to alert
+     * @return the {@link OverstayDetector}
+     */
+    public OverstayDetector createOverstayDetector(long maxBookedTime, OverstayListener overstayListener) {
+        if (maxBookedTime <= 0) {
+            throw new IllegalArgumentException(
+                    "cannot create the overstay detector, maxBookedTime field is not positive.");
+        }
+        if (overstayListener == null) {
+            throw new IllegalArgumentException("cannot create the overstay detector, overstayListener field is null.");
+        }
+        return new OverstayDetector(parkingBuilder.getBookingTimeIndex(), parkingBuilder.getClock(), maxBookedTime,
+                overstayListener);
+    }
+
+    private int computeBillInCts(ParkingResult parkingResult) {
+        return pricingPolicy.computeBillInCts(parkingResult.getParkingSlotType(), parkingResult.getBookingStartTime(),
+                parkingResult.getBookingStartTime() + parkingResult.getBookedTime(), parkingResult.getEnergyInWh());
+    }
 }
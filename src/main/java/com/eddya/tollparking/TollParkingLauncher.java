@@ -0,0 +1,60 @@
+package com.eddya.tollparking;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The entry point of a gate controller: load a prebuilt layout image, then open the gates.
+ * It reports the time to first booking (the figure to watch when tuning the startup, e.g. native image or AppCDS).
+ * <pre>
+ * java -jar tollparking.jar --generate &lt;nbSlotsPerType&gt; &lt;layoutImage&gt;  (build a sample layout image)
+ * java -jar tollparking.jar &lt;layoutImage&gt;                            (start and book a first slot)
+ * </pre>
+ */
+public class TollParkingLauncher {
+
+    public static void main(String[] args) throws Exception {
+        long mainStartTime = System.nanoTime();
+        if (args.length == 3 && args[0].equals("--generate")) {
+            generate(Integer.parseInt(args[1]), Paths.get(args[2]));
+        } else if (args.length == 1) {
+            start(Paths.get(args[0]), mainStartTime);
+        } else {
+            System.err.println("usage: TollParkingLauncher [--generate <nbSlotsPerType>] <layoutImage>");
+            System.exit(2);
+        }
+    }
+
+    private static void generate(int nbSlotsPerType, Path layoutImage) throws ParkingBuilderException {
+        List<ParkingSlotState> parkingSlots = new ArrayList<>();
+        for (int slotIdx = 1; slotIdx <= nbSlotsPerType; slotIdx++) {
+            for (ParkingSlotType parkingSlotType : ParkingSlotType.values()) {
+                parkingSlots.add(new ParkingSlotState(parkingSlotType.name() + "-" + slotIdx, parkingSlotType, 0));
+            }
+        }
+        ParkingLayoutImage.write(layoutImage, parkingSlots);
+        System.out.println("layout image " + layoutImage + " written (" + parkingSlots.size() + " slots).");
+    }
+
+    private static void start(Path layoutImage, long mainStartTime) throws Exception {
+        TollParking tollParking = new TollParking(new PerHourPricingPolicy(250));
+        tollParking.loadParkingLayout(layoutImage);
+        long loadedTime = System.nanoTime();
+        String parkingSlotId = tollParking.getParkingSlot(ParkingSlotType.GASOLINE);
+        long firstBookingTime = System.nanoTime();
+
+        System.out.printf("layout loaded: %d slots in %.1f ms%n", tollParking.getParkingSnapshot().size(),
+                (loadedTime - mainStartTime) / 1e6);
+        System.out.printf("first booking: %s, %.1f ms after main%n", parkingSlotId,
+                (firstBookingTime - mainStartTime) / 1e6);
+        try {
+            System.out.printf("time to first booking: %d ms since process start%n",
+                    ManagementFactory.getRuntimeMXBean().getUptime());
+        } catch (RuntimeException | Error e) { // e.g. management not available in the native image.
+            System.out.println("time to first booking since process start: not available");
+        }
+    }
+}
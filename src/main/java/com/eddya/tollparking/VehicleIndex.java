@@ -0,0 +1,125 @@
+package com.eddya.tollparking;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class maps the encoded vehicle keys (see {@link VehicleKeys}) to their booked {@link ParkingSlot}.
+ * It is an open-addressing hash table (linear probing) on primitive keys: a lookup is a hash probe without
+ * allocation nor lock. The updates are expected to be serialized by the caller (i.e. done under the booking lock).
+ *
+ * @author Eddy Albert
+ */
+class VehicleIndex {
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private int size = 0; // writer side only.
+    private int nbTombstones = 0; // writer side only.
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param vehicleKey the encoded vehicle key
+     * @return the related {@link ParkingSlot}, null if the vehicle has no booking
+     */
+    ParkingSlot get(long vehicleKey) {
+        Table current = table;
+        for (int idx = index(vehicleKey, current.mask); ; idx = (idx + 1) & current.mask) {
+            long key = current.keys.get(idx);
+            if (key == vehicleKey) {
+                ParkingSlot parkingSlot = current.values.get(idx);
+                return current.keys.get(idx) == vehicleKey ? parkingSlot : null; // removed in the meantime.
+            }
+            if (key == EMPTY) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @param vehicleKey  the encoded vehicle key (not already in the index)
+     * @param parkingSlot the booked {@link ParkingSlot}
+     */
+    void put(long vehicleKey, ParkingSlot parkingSlot) {
+        if ((size + nbTombstones + 1) * 2 > table.keys.length()) {
+            rehash();
+        }
+        Table current = table;
+        int idx = index(vehicleKey, current.mask);
+        long key;
+        while ((key = current.keys.get(idx)) != EMPTY && key != TOMBSTONE) {
+            idx = (idx + 1) & current.mask;
+        }
+        if (key == TOMBSTONE) {
+            nbTombstones--;
+        }
+        current.values.set(idx, parkingSlot); // the value is visible before the key.
+        current.keys.set(idx, vehicleKey);
+        size++;
+    }
+
+    /**
+     * @param vehicleKey the encoded vehicle key
+     */
+    void remove(long vehicleKey) {
+        Table current = table;
+        for (int idx = index(vehicleKey, current.mask); ; idx = (idx + 1) & current.mask) {
+            long key = current.keys.get(idx);
+            if (key == vehicleKey) {
+                current.keys.set(idx, TOMBSTONE);
+                current.values.set(idx, null);
+                size--;
+                nbTombstones++;
+                return;
+            }
+            if (key == EMPTY) {
+                return;
+            }
+        }
+    }
+
+    private void rehash() {
+        int capacity = MIN_CAPACITY;
+        while (capacity < (size + 1) * 4) {
+            capacity <<= 1;
+        }
+        Table current = table;
+        Table rehashed = new Table(capacity);
+        for (int idx = 0; idx < current.keys.length(); idx++) {
+            long key = current.keys.get(idx);
+            if (key != EMPTY && key != TOMBSTONE) {
+                int newIdx = index(key, rehashed.mask);
+                while (rehashed.keys.get(newIdx) != EMPTY) {
+                    newIdx = (newIdx + 1) & rehashed.mask;
+                }
+                rehashed.values.set(newIdx, current.values.get(idx));
+                rehashed.keys.set(newIdx, key);
+            }
+        }
+        nbTombstones = 0;
+        table = rehashed;
+    }
+
+    private static int index(long vehicleKey, int mask) {
+        long hash = vehicleKey * 0x9E3779B97F4A7C15L; // fibonacci hashing, spreads the close keys.
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static class Table {
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<ParkingSlot> values;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.eddya.tollparking;
+
+/**
+ * Encode the vehicle keys (licence plates or ticket numbers) into a compact long.
+ * The key is read case-insensitively, the separators (' ', '-', '.') are ignored and up to
+ * {@value #MAX_LENGTH} letters/digits are encoded in base 37 (e.g. "ab-123-cd" and "AB123CD" are the same key).
+ */
+final class VehicleKeys {
+
+    static final int MAX_LENGTH = 12; // 37^12 < 2^63, so the encoded key is always positive.
+    private static final int BASE = 37; // 0 is kept for "no character" (e.g. "A1" and "A01" differ).
+
+    private VehicleKeys() {
+    }
+
+    /**
+     * @param vehicleKey the vehicle key (e.g. "AB-123-CD")
+     * @return the encoded key (strictly positive)
+     * @throws IllegalArgumentException if the key is empty, too long or holds an unexpected character
+     */
+    static long encode(CharSequence vehicleKey) {
+        long encoded = 0;
+        int length = 0;
+        for (int charIdx = 0; charIdx < vehicleKey.length(); charIdx++) {
+            char c = vehicleKey.charAt(charIdx);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = 1 + c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = 11 + c - 'A';
+            } else if (c >= 'a' && c <= 'z') {
+                digit = 11 + c - 'a';
+            } else if (c == ' ' || c == '-' || c == '.') {
+                continue;
+            } else {
+                throw new IllegalArgumentException("cannot encode vehicle key " + vehicleKey
+                        + ", unexpected character '" + c + "'.");
+            }
+            if (++length > MAX_LENGTH) {
+                throw new IllegalArgumentException("cannot encode vehicle key " + vehicleKey
+                        + ", it is longer than " + MAX_LENGTH + " characters.");
+            }
+            encoded = encoded * BASE + digit;
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("cannot encode vehicle key " + vehicleKey + ", it is empty.");
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,77 @@
+package com.eddya.tollparking.simulation;
+
+import java.util.Arrays;
+
+/**
+ * The arrival rate of vehicles along a day (i.e. the number of arrivals per hour, for each hour of the day).
+ * Arrivals are then generated as a non-homogeneous Poisson process following this rate.
+ */
+public class ArrivalProfile {
+
+    static final int NB_HOUR_PER_DAY = 24;
+    static final int NB_SECOND_PER_DAY = NB_HOUR_PER_DAY * 3600;
+
+    private final double[] nbArrivalPerHour;
+    private final double maxNbArrivalPerHour;
+
+    /**
+     * @param nbArrivalPerHour the mean number of arrivals for each hour of the day (24 values)
+     */
+    public ArrivalProfile(double... nbArrivalPerHour) {
+        if (nbArrivalPerHour.length != NB_HOUR_PER_DAY) {
+            throw new IllegalArgumentException("cannot create the arrival profile, " + NB_HOUR_PER_DAY
+                    + " hourly rates are expected.");
+        }
+        double max = 0;
+        for (double rate : nbArrivalPerHour) {
+            if (rate < 0) {
+                throw new IllegalArgumentException("cannot create the arrival profile, a rate is negative.");
+            }
+            max = Math.max(max, rate);
+        }
+        this.nbArrivalPerHour = nbArrivalPerHour.clone();
+        this.maxNbArrivalPerHour = max;
+    }
+
+    /**
+     * The same arrival rate all day long.
+     *
+     * @param nbArrivalPerHour the mean number of arrivals per hour
+     * @return the related {@link ArrivalProfile}
+     */
+    public static ArrivalProfile constant(double nbArrivalPerHour) {
+        double[] rates = new double[NB_HOUR_PER_DAY];
+        Arrays.fill(rates, nbArrivalPerHour);
+        return new ArrivalProfile(rates);
+    }
+
+    /**
+     * An off-peak arrival rate except during rush hours.
+     *
+     * @param offPeakNbArrivalPerHour the mean number of arrivals per hour outside rush hours
+     * @param peakNbArrivalPerHour    the mean number of arrivals per hour during rush hours
+     * @param peakHours               the rush hours (e.g. 8, 9, 17, 18)
+     * @return the related {@link ArrivalProfile}
+     */
+    public static ArrivalProfile rushHours(double offPeakNbArrivalPerHour, double peakNbArrivalPerHour,
+                                           int... peakHours) {
+        double[] rates = new double[NB_HOUR_PER_DAY];
+        Arrays.fill(rates, offPeakNbArrivalPerHour);
+        for (int peakHour : peakHours) {
+            rates[peakHour] = peakNbArrivalPerHour;
+        }
+        return new ArrivalProfile(rates);
+    }
+
+    /**
+     * @param secondOfDay the second of the day
+     * @return the mean number of arrivals per hour at that time
+     */
+    double getNbArrivalPerHour(long secondOfDay) {
+        return nbArrivalPerHour[(int) (secondOfDay / 3600) % NB_HOUR_PER_DAY];
+    }
+
+    double getMaxNbArrivalPerHour() {
+        return maxNbArrivalPerHour;
+    }
+}
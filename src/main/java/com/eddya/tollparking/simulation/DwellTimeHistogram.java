@@ -0,0 +1,56 @@
+package com.eddya.tollparking.simulation;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The distribution of the time vehicles stay in the parking.
+ * Each bucket covers ]previous upper bound, upper bound] and is sampled uniformly.
+ */
+public class DwellTimeHistogram {
+
+    private final long[] upperBoundsInSeconds;
+    private final double[] cumulativeWeights;
+
+    /**
+     * @param upperBoundsInSeconds the bucket upper bounds in seconds (strictly increasing)
+     * @param weights              the related bucket weights (e.g. observed number of stays)
+     */
+    public DwellTimeHistogram(long[] upperBoundsInSeconds, double[] weights) {
+        if (upperBoundsInSeconds.length == 0 || upperBoundsInSeconds.length != weights.length) {
+            throw new IllegalArgumentException("cannot create the dwell time histogram, bounds and weights mismatch.");
+        }
+        this.upperBoundsInSeconds = upperBoundsInSeconds.clone();
+        this.cumulativeWeights = new double[weights.length];
+        double total = 0;
+        long previousBound = 0;
+        for (int bucketIdx = 0; bucketIdx < weights.length; bucketIdx++) {
+            if (upperBoundsInSeconds[bucketIdx] <= previousBound || weights[bucketIdx] < 0) {
+                throw new IllegalArgumentException("cannot create the dwell time histogram, invalid bucket "
+                        + bucketIdx + ".");
+            }
+            previousBound = upperBoundsInSeconds[bucketIdx];
+            total += weights[bucketIdx];
+            cumulativeWeights[bucketIdx] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("cannot create the dwell time histogram, all weights are null.");
+        }
+    }
+
+    /**
+     * Draw a dwell time.
+     *
+     * @param random the random generator
+     * @return a dwell time in seconds (at least 1)
+     */
+    long sample(Random random) {
+        double draw = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int bucketIdx = Arrays.binarySearch(cumulativeWeights, draw);
+        bucketIdx = bucketIdx < 0 ? -bucketIdx - 1 : bucketIdx + 1;
+        bucketIdx = Math.min(bucketIdx, cumulativeWeights.length - 1);
+        long lowerBound = bucketIdx == 0 ? 0 : upperBoundsInSeconds[bucketIdx - 1];
+        long width = upperBoundsInSeconds[bucketIdx] - lowerBound;
+        return lowerBound + 1 + (long) (random.nextDouble() * width) % width;
+    }
+}
@@ -0,0 +1,229 @@
+package com.eddya.tollparking.simulation;
+
+import com.eddya.tollparking.ManualEpochSecondClock;
+import com.eddya.tollparking.OccupancyPricingPolicy;
+import com.eddya.tollparking.ParkingBuilderException;
+import com.eddya.tollparking.ParkingSlotBookerException;
+import com.eddya.tollparking.ParkingSlotException;
+import com.eddya.tollparking.ParkingSlotType;
+import com.eddya.tollparking.PricingPolicy;
+import com.eddya.tollparking.TollParking;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * This class replays synthetic traffic on a {@link TollParking} driven by a virtual time.
+ * Days of traffic are simulated in seconds: time jumps from one event (arrival, departure, sample) to the next.
+ * An {@link OccupancyPricingPolicy} recomputes its prices at each sample, on the virtual time.
+ *
+ * @author Eddy Albert
+ */
+public class ParkingSimulator {
+
+    static final long SIMULATION_START_EPOCH_SECOND = Instant.parse("2020-01-06T00:00:00Z").getEpochSecond();
+    private static final ParkingSlotType[] PARKING_SLOT_TYPES = ParkingSlotType.values();
+
+    private final int nbThreads;
+
+    public ParkingSimulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param nbThreads the number of runs executed in parallel
+     */
+    public ParkingSimulator(int nbThreads) {
+        if (nbThreads <= 0) {
+            throw new IllegalArgumentException("cannot create the simulator, nbThreads field is not positive.");
+        }
+        this.nbThreads = nbThreads;
+    }
+
+    /**
+     * Run each scenario with each pricing policy, in parallel.
+     *
+     * @param scenarios       the scenarios to simulate
+     * @param pricingPolicies the pricing policies to compare, by name (a new instance is created for each run, e.g.
+     *                        () -&gt; new OccupancyPricingPolicy(250, 0.7, 2.0))
+     * @return one report per (scenario, pricing policy), in the scenarios then policies order
+     * @throws SimulationException if a run failed
+     */
+    public List<SimulationReport> runAll(@NotNull List<SimulationScenario> scenarios,
+                                         @NotNull Map<String, Supplier<PricingPolicy>> pricingPolicies)
+            throws SimulationException {
+
+        List<Callable<SimulationReport>> runs = new ArrayList<>();
+        for (SimulationScenario scenario : scenarios) {
+            for (Map.Entry<String, Supplier<PricingPolicy>> pricingPolicy : pricingPolicies.entrySet()) {
+                runs.add(() -> run(scenario, pricingPolicy.getKey(), pricingPolicy.getValue().get()));
+            }
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, Math.min(nbThreads, runs.size())));
+        try {
+            List<SimulationReport> reports = new ArrayList<>();
+            for (Future<SimulationReport> future : executorService.invokeAll(runs)) {
+                reports.add(future.get());
+            }
+            return reports;
+        } catch (ExecutionException e) {
+            throw new SimulationException("cannot complete the simulation, a run failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SimulationException("cannot complete the simulation, it has been interrupted.", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Run a scenario with a pricing policy.
+     *
+     * @param scenario          the scenario to simulate
+     * @param pricingPolicyName the pricing policy name (reporting purpose)
+     * @param pricingPolicy     the {@link PricingPolicy}, not used by another run (it is attached to the simulated
+     *                          parking if it depends on its occupancy)
+     * @return the related report
+     * @throws SimulationException if the parking failed handling the traffic
+     */
+    public SimulationReport run(@NotNull SimulationScenario scenario, @NotNull String pricingPolicyName,
+                                @NotNull PricingPolicy pricingPolicy) throws SimulationException {
+        try {
+            return doRun(scenario, pricingPolicyName, pricingPolicy);
+        } catch (ParkingBuilderException | ParkingSlotException | ParkingSlotBookerException e) {
+            throw new SimulationException("cannot run scenario " + scenario.getName() + ", the parking failed.", e);
+        }
+    }
+
+    private SimulationReport doRun(SimulationScenario scenario, String pricingPolicyName, PricingPolicy pricingPolicy)
+            throws ParkingBuilderException, ParkingSlotException, ParkingSlotBookerException {
+
+        long startWallTime = System.nanoTime();
+        Random random = new Random(scenario.getSeed());
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(SIMULATION_START_EPOCH_SECOND);
+        TollParking tollParking = new TollParking(pricingPolicy, clock);
+        OccupancyPricingPolicy occupancyPricingPolicy = pricingPolicy instanceof OccupancyPricingPolicy
+                ? (OccupancyPricingPolicy) pricingPolicy : null;
+
+        // build.
+        for (ParkingSlotType parkingSlotType : PARKING_SLOT_TYPES) {
+            for (int slotIdx = 1; slotIdx <= scenario.getNbParkingSlot(parkingSlotType); slotIdx++) {
+                tollParking.addParkingSlot(parkingSlotType, parkingSlotType.name() + "-" + slotIdx);
+            }
+        }
+
+        long duration = (long) scenario.getNbDays() * ArrivalProfile.NB_SECOND_PER_DAY;
+        int nbSamples = (int) (duration / scenario.getSamplingPeriodInSeconds());
+        SimulationReport report = new SimulationReport(scenario.getName(), pricingPolicyName,
+                scenario.getSamplingPeriodInSeconds(), nbSamples);
+
+        long[] nextArrivals = new long[PARKING_SLOT_TYPES.length];
+        for (ParkingSlotType parkingSlotType : PARKING_SLOT_TYPES) {
+            nextArrivals[parkingSlotType.ordinal()] = nextArrival(scenario.getArrivalProfile(parkingSlotType), 0, random);
+        }
+        PriorityQueue<Departure> departures = new PriorityQueue<>();
+        long nbOperations = 0;
+        int sampleIdx = 0;
+
+        // replay (times are relative to the simulation start).
+        while (true) {
+            long nextSample = sampleIdx < nbSamples ? (long) sampleIdx * scenario.getSamplingPeriodInSeconds() : Long.MAX_VALUE;
+            long nextDeparture = departures.isEmpty() ? Long.MAX_VALUE : departures.peek().time;
+            int arrivalTypeIdx = 0;
+            for (int typeIdx = 1; typeIdx < nextArrivals.length; typeIdx++) {
+                if (nextArrivals[typeIdx] < nextArrivals[arrivalTypeIdx]) {
+                    arrivalTypeIdx = typeIdx;
+                }
+            }
+            long nextArrival = nextArrivals[arrivalTypeIdx];
+            long now = Math.min(nextSample, Math.min(nextDeparture, nextArrival));
+            if (now >= duration) {
+                break;
+            }
+            clock.set(SIMULATION_START_EPOCH_SECOND + now);
+
+            if (nextDeparture == now) { // departures first, so that a leaving vehicle frees its slot.
+                Departure departure = departures.poll();
+                report.recordRevenue(departure.parkingSlotType, tollParking.releaseParkingSlot(departure.parkingSlotId));
+                nbOperations++;
+            } else if (nextArrival == now) {
+                ParkingSlotType parkingSlotType = PARKING_SLOT_TYPES[arrivalTypeIdx];
+                String parkingSlotId = tollParking.getParkingSlot(parkingSlotType);
+                nbOperations++;
+                report.recordArrival(parkingSlotType, parkingSlotId == null);
+                if (parkingSlotId != null) {
+                    long dwellTime = scenario.getDwellTimeHistogram(parkingSlotType).sample(random);
+                    departures.add(new Departure(now + dwellTime, parkingSlotId, parkingSlotType));
+                }
+                nextArrivals[arrivalTypeIdx] = nextArrival(scenario.getArrivalProfile(parkingSlotType), now, random);
+            } else {
+                if (occupancyPricingPolicy != null) {
+                    occupancyPricingPolicy.recompute();
+                }
+                for (ParkingSlotType parkingSlotType : PARKING_SLOT_TYPES) {
+                    report.recordOccupancy(parkingSlotType, sampleIdx, scenario.getNbParkingSlot(parkingSlotType)
+                            - (int) tollParking.getNbVacantParkingSlot(parkingSlotType));
+                }
+                sampleIdx++;
+            }
+        }
+
+        report.setNbOperations(nbOperations);
+        report.setWallTimeInNanos(System.nanoTime() - startWallTime);
+        return report;
+    }
+
+    /**
+     * Draw the next arrival of a non-homogeneous Poisson process (thinning method).
+     *
+     * @param arrivalProfile the {@link ArrivalProfile} (null means no traffic)
+     * @param from           the current time in seconds
+     * @param random         the random generator
+     * @return the next arrival time in seconds, or Long.MAX_VALUE if there is none
+     */
+    static long nextArrival(ArrivalProfile arrivalProfile, long from, Random random) {
+        if (arrivalProfile == null || arrivalProfile.getMaxNbArrivalPerHour() <= 0) {
+            return Long.MAX_VALUE;
+        }
+        double maxRatePerSecond = arrivalProfile.getMaxNbArrivalPerHour() / 3600;
+        double time = from;
+        while (true) {
+            time += -Math.log(1 - random.nextDouble()) / maxRatePerSecond;
+            long candidate = (long) Math.ceil(time);
+            double acceptance = arrivalProfile.getNbArrivalPerHour(candidate % ArrivalProfile.NB_SECOND_PER_DAY)
+                    / arrivalProfile.getMaxNbArrivalPerHour();
+            if (random.nextDouble() < acceptance) {
+                return Math.max(candidate, from + 1);
+            }
+        }
+    }
+
+    private static class Departure implements Comparable<Departure> {
+        private final long time;
+        private final String parkingSlotId;
+        private final ParkingSlotType parkingSlotType;
+
+        private Departure(long time, String parkingSlotId, ParkingSlotType parkingSlotType) {
+            this.time = time;
+            this.parkingSlotId = parkingSlotId;
+            this.parkingSlotType = parkingSlotType;
+        }
+
+        @Override
+        public int compareTo(Departure o) {
+            return Long.compare(time, o.time);
+        }
+    }
+}
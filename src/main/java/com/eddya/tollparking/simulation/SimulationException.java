@@ -0,0 +1,11 @@
+package com.eddya.tollparking.simulation;
+
+public class SimulationException extends Exception {
+    public SimulationException(String message) {
+        super(message);
+    }
+
+    public SimulationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,136 @@
+package com.eddya.tollparking.simulation;
+
+import com.eddya.tollparking.ParkingSlotType;
+
+/**
+ * The outcome of a simulation run: one scenario replayed with one pricing policy.
+ */
+public class SimulationReport {
+
+    private static final int NB_TYPE = ParkingSlotType.values().length;
+
+    private final String scenarioName;
+    private final String pricingPolicyName;
+    private final int samplingPeriodInSeconds;
+
+    private final long[] nbArrivals = new long[NB_TYPE];
+    private final long[] nbRejections = new long[NB_TYPE];
+    private final long[] revenuesInCts = new long[NB_TYPE];
+    private final int[][] occupancyCurves;
+    private long nbOperations;
+    private long wallTimeInNanos;
+
+    SimulationReport(String scenarioName, String pricingPolicyName, int samplingPeriodInSeconds, int nbSamples) {
+        this.scenarioName = scenarioName;
+        this.pricingPolicyName = pricingPolicyName;
+        this.samplingPeriodInSeconds = samplingPeriodInSeconds;
+        this.occupancyCurves = new int[NB_TYPE][nbSamples];
+    }
+
+    // --- filled by the simulator.
+
+    void recordArrival(ParkingSlotType parkingSlotType, boolean rejected) {
+        nbArrivals[parkingSlotType.ordinal()]++;
+        if (rejected) {
+            nbRejections[parkingSlotType.ordinal()]++;
+        }
+    }
+
+    void recordRevenue(ParkingSlotType parkingSlotType, int billInCts) {
+        revenuesInCts[parkingSlotType.ordinal()] += billInCts;
+    }
+
+    void recordOccupancy(ParkingSlotType parkingSlotType, int sampleIdx, int nbBookedSlot) {
+        occupancyCurves[parkingSlotType.ordinal()][sampleIdx] = nbBookedSlot;
+    }
+
+    void setNbOperations(long nbOperations) {
+        this.nbOperations = nbOperations;
+    }
+
+    void setWallTimeInNanos(long wallTimeInNanos) {
+        this.wallTimeInNanos = wallTimeInNanos;
+    }
+
+    // --- read the results.
+
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    public String getPricingPolicyName() {
+        return pricingPolicyName;
+    }
+
+    public int getSamplingPeriodInSeconds() {
+        return samplingPeriodInSeconds;
+    }
+
+    public long getNbArrivals(ParkingSlotType parkingSlotType) {
+        return nbArrivals[parkingSlotType.ordinal()];
+    }
+
+    public long getNbRejections(ParkingSlotType parkingSlotType) {
+        return nbRejections[parkingSlotType.ordinal()];
+    }
+
+    /**
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @return the ratio of arrivals that found no vacant slot (0 if there was no arrival)
+     */
+    public double getRejectionRate(ParkingSlotType parkingSlotType) {
+        long arrivals = getNbArrivals(parkingSlotType);
+        return arrivals == 0 ? 0 : (double) getNbRejections(parkingSlotType) / arrivals;
+    }
+
+    public long getRevenueInCts(ParkingSlotType parkingSlotType) {
+        return revenuesInCts[parkingSlotType.ordinal()];
+    }
+
+    public long getRevenueInCts() {
+        long revenue = 0;
+        for (long revenueInCts : revenuesInCts) {
+            revenue += revenueInCts;
+        }
+        return revenue;
+    }
+
+    /**
+     * @param parkingSlotType the {@link ParkingSlotType}
+     * @return the number of booked slots, sampled every {@link #getSamplingPeriodInSeconds()} seconds
+     */
+    public int[] getOccupancyCurve(ParkingSlotType parkingSlotType) {
+        return occupancyCurves[parkingSlotType.ordinal()].clone();
+    }
+
+    /**
+     * @return the number of booking and release operations executed
+     */
+    public long getNbOperations() {
+        return nbOperations;
+    }
+
+    public long getWallTimeInNanos() {
+        return wallTimeInNanos;
+    }
+
+    /**
+     * @return the number of booking and release operations executed per second of wall time
+     */
+    public double getThroughput() {
+        return wallTimeInNanos == 0 ? 0 : nbOperations * 1e9 / wallTimeInNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(scenarioName).append(" / ").append(pricingPolicyName).append(':');
+        for (ParkingSlotType parkingSlotType : ParkingSlotType.values()) {
+            sb.append(String.format(" %s[arrivals=%d, rejected=%.2f%%, revenue=%dcts]", parkingSlotType,
+                    getNbArrivals(parkingSlotType), 100 * getRejectionRate(parkingSlotType),
+                    getRevenueInCts(parkingSlotType)));
+        }
+        sb.append(String.format(" throughput=%.0f op/s", getThroughput()));
+        return sb.toString();
+    }
+}
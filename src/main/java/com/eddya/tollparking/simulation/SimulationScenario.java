@@ -0,0 +1,87 @@
+package com.eddya.tollparking.simulation;
+
+import com.eddya.tollparking.ParkingSlotType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * This class describes a site to simulate: its slots, the vehicle arrivals and their dwell times.
+ */
+public class SimulationScenario {
+
+    private final String name;
+    private final int nbDays;
+    private final int samplingPeriodInSeconds;
+    private final long seed;
+
+    private final Map<ParkingSlotType, Integer> nbParkingSlots = new EnumMap<>(ParkingSlotType.class);
+    private final Map<ParkingSlotType, ArrivalProfile> arrivalProfiles = new EnumMap<>(ParkingSlotType.class);
+    private final Map<ParkingSlotType, DwellTimeHistogram> dwellTimeHistograms = new EnumMap<>(ParkingSlotType.class);
+
+    /**
+     * @param name                    the scenario name (e.g. "downtown, 500 slots")
+     * @param nbDays                  the simulated duration in days
+     * @param samplingPeriodInSeconds the period of the occupancy samples in seconds
+     * @param seed                    the random seed (a given seed always gives the same run)
+     */
+    public SimulationScenario(@NotNull String name, int nbDays, int samplingPeriodInSeconds, long seed) {
+        if (nbDays <= 0) {
+            throw new IllegalArgumentException("cannot create the scenario, nbDays field is not positive.");
+        }
+        if (samplingPeriodInSeconds <= 0) {
+            throw new IllegalArgumentException("cannot create the scenario, samplingPeriodInSeconds field is not positive.");
+        }
+        this.name = name;
+        this.nbDays = nbDays;
+        this.samplingPeriodInSeconds = samplingPeriodInSeconds;
+        this.seed = seed;
+    }
+
+    /**
+     * Add parking slots of a given type and the related traffic.
+     *
+     * @param parkingSlotType    the {@link ParkingSlotType}
+     * @param nbParkingSlot      the number of parking slots of that type
+     * @param arrivalProfile     the arrivals of vehicles requesting that type
+     * @param dwellTimeHistogram the dwell times of vehicles parked on that type
+     * @return this scenario
+     */
+    public SimulationScenario addParkingSlots(@NotNull ParkingSlotType parkingSlotType, int nbParkingSlot,
+                                              @NotNull ArrivalProfile arrivalProfile,
+                                              @NotNull DwellTimeHistogram dwellTimeHistogram) {
+        nbParkingSlots.put(parkingSlotType, nbParkingSlot);
+        arrivalProfiles.put(parkingSlotType, arrivalProfile);
+        dwellTimeHistograms.put(parkingSlotType, dwellTimeHistogram);
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int getNbDays() {
+        return nbDays;
+    }
+
+    int getSamplingPeriodInSeconds() {
+        return samplingPeriodInSeconds;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    int getNbParkingSlot(ParkingSlotType parkingSlotType) {
+        return nbParkingSlots.getOrDefault(parkingSlotType, 0);
+    }
+
+    ArrivalProfile getArrivalProfile(ParkingSlotType parkingSlotType) {
+        return arrivalProfiles.get(parkingSlotType);
+    }
+
+    DwellTimeHistogram getDwellTimeHistogram(ParkingSlotType parkingSlotType) {
+        return dwellTimeHistograms.get(parkingSlotType);
+    }
+}
@@ -0,0 +1,130 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BookingTimeIndexTest implements WithAssertions {
+
+    private final ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+    private ParkingBuilder parkingBuilder;
+    private ParkingSlotBooker parkingSlotBooker;
+    private BookingTimeIndex bookingTimeIndex;
+
+    @Before
+    public void setUp() throws ParkingBuilderException {
+        parkingBuilder = new ParkingBuilder(clock);
+        parkingSlotBooker = new ParkingSlotBooker(parkingBuilder.getParkingSlots(),
+                parkingBuilder.getParkingSlotListeners());
+        bookingTimeIndex = parkingBuilder.getBookingTimeIndex();
+        for (int slotIdx = 1; slotIdx <= 5; slotIdx++) {
+            parkingBuilder.addParkingSlot(ParkingSlotType.GASOLINE, "GAZ" + slotIdx);
+        }
+    }
+
+    private String bookAndAdvance(long nbSeconds) throws ParkingSlotException {
+        String id = parkingSlotBooker.getParkingSlot(ParkingSlotType.GASOLINE).getId();
+        clock.advance(nbSeconds);
+        return id;
+    }
+
+    @Test
+    public void theIndexShouldFollowTheBookingsAndReleases() throws ParkingSlotException, ParkingSlotBookerException {
+        String first = bookAndAdvance(100);
+        String second = bookAndAdvance(100);
+        String third = bookAndAdvance(100);
+        parkingSlotBooker.releaseParkingSlot(second);
+
+        // check.
+        assertThat(bookingTimeIndex.size()).isEqualTo(2);
+        assertThat(bookingTimeIndex.getOldestBookings(10)).extracting(ParkingSlotState::getId)
+                .containsExactly(first, third);
+        assertThat(bookingTimeIndex.getOldestBookings(1)).extracting(ParkingSlotState::getBookingStartTime)
+                .containsExactly(1000L);
+    }
+
+    @Test
+    public void getBookingsStartedBeforeShouldReturnTheOldBookingsOnly() throws ParkingSlotException {
+        String first = bookAndAdvance(100);
+        String second = bookAndAdvance(100);
+        bookAndAdvance(100);
+
+        // check.
+        assertThat(bookingTimeIndex.getBookingsStartedBefore(1100)).extracting(ParkingSlotState::getId)
+                .containsExactly(first, second);
+        assertThat(bookingTimeIndex.getBookingsStartedBefore(999)).isEmpty();
+    }
+
+    @Test
+    public void theOverstayDetectorShouldAlertEachBookingOnce() throws ParkingSlotException {
+        StringBuilder alerts = new StringBuilder();
+        OverstayDetector overstayDetector = new OverstayDetector(bookingTimeIndex, clock, 3600,
+                (booking, bookedTime) -> alerts.append(booking.getId()).append('=').append(bookedTime).append(' '));
+        String first = bookAndAdvance(1800);
+        String second = bookAndAdvance(1700);
+
+        // check.
+        assertThat(overstayDetector.check()).isEqualTo(0);
+        clock.advance(1800);
+        assertThat(overstayDetector.check()).isEqualTo(1);
+        assertThat(overstayDetector.check()).isEqualTo(0);
+        clock.advance(1800);
+        assertThat(overstayDetector.check()).isEqualTo(1);
+        assertThat(alerts.toString()).isEqualTo(first + "=5300 " + second + "=5300 ");
+    }
+
+    @Test
+    public void theOverstayDetectorShouldAlertABookingSortedBeforeTheAlertedOnes()
+            throws ParkingSlotException, ParkingSlotBookerException {
+        StringBuilder alerts = new StringBuilder();
+        OverstayDetector overstayDetector = new OverstayDetector(bookingTimeIndex, clock, 3600,
+                (booking, bookedTime) -> alerts.append(booking.getId()).append('=').append(bookedTime).append(' '));
+        String first = bookAndAdvance(0);
+        String second = bookAndAdvance(0);
+        parkingSlotBooker.releaseParkingSlot(first);
+        clock.advance(3601);
+
+        // check: the slot is booked again with the same start time (the clock moved back), its id sorts first.
+        assertThat(overstayDetector.check()).isEqualTo(1);
+        clock.set(1000);
+        assertThat(bookAndAdvance(3700)).isEqualTo(first);
+        assertThat(overstayDetector.check()).isEqualTo(1);
+        assertThat(overstayDetector.check()).isEqualTo(0);
+        assertThat(alerts.toString()).isEqualTo(second + "=3601 " + first + "=3700 ");
+    }
+
+    @Test
+    public void theOverstayDetectorShouldForgetTheReleasedBookings()
+            throws ParkingSlotException, ParkingSlotBookerException {
+        StringBuilder alerts = new StringBuilder();
+        OverstayDetector overstayDetector = new OverstayDetector(bookingTimeIndex, clock, 3600,
+                (booking, bookedTime) -> alerts.append(booking.getId()).append('=').append(bookedTime).append(' '));
+        String first = bookAndAdvance(3601);
+
+        // check: booked again with the same start time (the clock moved back), the booking is alerted again.
+        assertThat(overstayDetector.check()).isEqualTo(1);
+        parkingSlotBooker.releaseParkingSlot(first);
+        assertThat(overstayDetector.check()).isEqualTo(0);
+        clock.set(1000);
+        assertThat(bookAndAdvance(3602)).isEqualTo(first);
+        assertThat(overstayDetector.check()).isEqualTo(1);
+        assertThat(alerts.toString()).isEqualTo(first + "=3601 " + first + "=3602 ");
+    }
+
+    @Test
+    public void theOverstayDetectorShouldRunInBackground() throws ParkingSlotException, InterruptedException {
+        CountDownLatch alerted = new CountDownLatch(1);
+        bookAndAdvance(7200);
+        try (OverstayDetector overstayDetector = new OverstayDetector(bookingTimeIndex, clock, 3600,
+                (booking, bookedTime) -> alerted.countDown())) {
+            overstayDetector.start(1);
+
+            // check.
+            assertThat(alerted.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThatThrownBy(() -> overstayDetector.start(1)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class CachedEpochSecondClockTest implements WithAssertions {
+
+    @Test
+    public void constructorShouldReadTheSourceImmediately() {
+        ManualEpochSecondClock source = new ManualEpochSecondClock(1000);
+        try (CachedEpochSecondClock clock = new CachedEpochSecondClock(source, 60_000)) {
+
+            // check.
+            assertThat(clock.getEpochSecond()).isEqualTo(1000);
+        }
+    }
+
+    @Test
+    public void getEpochSecondShouldReturnTheCachedValueUntilTheNextTick() {
+        ManualEpochSecondClock source = new ManualEpochSecondClock(1000);
+        try (CachedEpochSecondClock clock = new CachedEpochSecondClock(source, 60_000)) {
+            source.advance(5);
+
+            // check.
+            assertThat(clock.getEpochSecond()).isEqualTo(1000);
+            clock.tick();
+            assertThat(clock.getEpochSecond()).isEqualTo(1005);
+        }
+    }
+
+    @Test
+    public void theTickerShouldRefreshTheClockInBackground() throws InterruptedException {
+        ManualEpochSecondClock source = new ManualEpochSecondClock(1000);
+        try (CachedEpochSecondClock clock = new CachedEpochSecondClock(source, 1)) {
+            source.advance(5);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (clock.getEpochSecond() != 1005 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+
+            // check.
+            assertThat(clock.getEpochSecond()).isEqualTo(1005);
+        }
+    }
+
+    @Test
+    public void theDefaultClockShouldFollowTheSystemClock() {
+        long now = new CurrentTimeSupplier().getEpochSecond();
+
+        // check.
+        assertThat(CachedEpochSecondClock.getDefault().getEpochSecond()).isBetween(now - 1, now + 1);
+    }
+
+    @Test
+    public void constructorWithIllegalArgumentShouldThrowTheExpectedException() {
+        assertThatThrownBy(() -> new CachedEpochSecondClock(new CurrentTimeSupplier(), 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("cannot create the clock, tickPeriodInMillis field is not positive.");
+    }
+}
@@ -0,0 +1,127 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EnergyMeterTest implements WithAssertions {
+
+    private static final int ONE_WH_PER_MS = 3_600_000; // a power in W delivering 1 Wh per ms.
+
+    @Test
+    public void theSamplesShouldBeRecordedDuringASessionOnly() {
+        EnergyMeter energyMeter = new EnergyMeter();
+
+        // check.
+        assertThat(energyMeter.record(1000, 20000)).isFalse();
+        energyMeter.open(1);
+        assertThat(energyMeter.record(999, 20000)).isFalse(); // before the booking.
+        assertThat(energyMeter.record(1000, 20000)).isTrue(); // starts the session.
+        for (long sampleTime = 2000; sampleTime <= 3_600_000; sampleTime += 1000) {
+            energyMeter.record(sampleTime, 20000);
+        }
+        assertThat(energyMeter.getEnergyInWh()).isEqualTo(19994); // 20kW during 3599s.
+        assertThat(energyMeter.close()).isEqualTo(19994);
+        assertThat(energyMeter.record(3_601_000, 20000)).isFalse();
+        assertThat(energyMeter.getEnergyInWh()).isEqualTo(0);
+        assertThat(energyMeter.close()).isEqualTo(0);
+    }
+
+    @Test
+    public void theOutOfOrderSamplesAndTheGapsShouldNotBeBilled() {
+        EnergyMeter energyMeter = new EnergyMeter();
+        energyMeter.open(1);
+        energyMeter.record(1_000, 36000);
+        energyMeter.record(101_000, 36000); // too long since the previous sample, restarts the metering.
+
+        // check.
+        assertThat(energyMeter.record(101_000, 36000)).isFalse();
+        assertThat(energyMeter.record(51_000, 36000)).isFalse();
+        assertThat(energyMeter.record(111_000, 36000)).isTrue();
+        assertThat(energyMeter.close()).isEqualTo(100); // 36kW during 10s.
+    }
+
+    @Test
+    public void theFirstSampleShouldBeBilledSinceTheBookingStart() {
+        EnergyMeter energyMeter = new EnergyMeter();
+        energyMeter.open(1000);
+        energyMeter.record(1_010_000, 36000);
+        energyMeter.record(1_020_000, 36000);
+        long energyInWh = energyMeter.close();
+        energyMeter.open(2000);
+        energyMeter.record(2_000_000 + 10 * EnergyMeter.MAX_SAMPLE_INTERVAL, 36000); // charger offline meanwhile.
+
+        // check.
+        assertThat(energyInWh).isEqualTo(200); // 36kW during 20s.
+        assertThat(energyMeter.close()).isEqualTo(600); // 36kW during the max sample interval (60s).
+    }
+
+    @Test
+    public void racingSamplesShouldBeBilledOnceToTheirSession() throws InterruptedException {
+        int nbChargers = 4;
+        int nbSamplesPerCharger = 20000;
+        EnergyMeter energyMeter = new EnergyMeter();
+        energyMeter.open(1000);
+        List<Thread> threads = new ArrayList<>();
+        AtomicLong lastRecordedTime = new AtomicLong();
+        for (int chargerIdx = 0; chargerIdx < nbChargers; chargerIdx++) {
+            int firstSampleTime = 1_000_000 + chargerIdx;
+            threads.add(new Thread(() -> { // interleaved timestamps: the chargers race on the last sample time.
+                for (int sampleIdx = 0; sampleIdx < nbSamplesPerCharger; sampleIdx++) {
+                    long sampleTime = firstSampleTime + (long) sampleIdx * nbChargers;
+                    if (energyMeter.record(sampleTime, ONE_WH_PER_MS)) {
+                        lastRecordedTime.accumulateAndGet(sampleTime, Math::max);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // check: the recorded intervals add up to the time between the booking start and the last recorded sample.
+        assertThat(energyMeter.close()).isEqualTo(lastRecordedTime.get() - 1_000_000);
+    }
+
+    @Test
+    public void aSampleShouldNotLeakIntoTheNextSession() throws InterruptedException {
+        EnergyMeter energyMeter = new EnergyMeter();
+        AtomicLong sampleClock = new AtomicLong(1_000_000); // in ms.
+        AtomicBoolean stopped = new AtomicBoolean();
+        Thread charger = new Thread(() -> { // the charger keeps on sending samples across the sessions.
+            while (!stopped.get()) {
+                energyMeter.record(sampleClock.incrementAndGet(), ONE_WH_PER_MS);
+            }
+        });
+        Thread lateCharger = new Thread(() -> { // samples buffered before the current booking.
+            while (!stopped.get()) {
+                energyMeter.record(1_000_000 + (sampleClock.get() % 1000), ONE_WH_PER_MS);
+            }
+        });
+        charger.start();
+        lateCharger.start();
+        try {
+            for (int sessionIdx = 0; sessionIdx < 200; sessionIdx++) {
+                long bookingStartTime = sampleClock.get() / 1000 + 1;
+                energyMeter.open(bookingStartTime);
+                while (sampleClock.get() < bookingStartTime * 1000 + 100) {
+                    Thread.yield();
+                }
+                long energyInWh = energyMeter.close();
+                long sessionEndTime = sampleClock.get();
+
+                // check: 1 Wh per ms at most since the booking start.
+                assertThat(energyInWh).isBetween(0L, sessionEndTime - bookingStartTime * 1000);
+            }
+        } finally {
+            stopped.set(true);
+            charger.join();
+            lateCharger.join();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.eddya.tollparking;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A Wing &amp; Gong linearizability checker (test purpose): a concurrent history is linearizable if its operations can
+ * be ordered, without reordering the ones which did not overlap in time, so that every result matches the one of
+ * a sequential parking model.
+ * note: the search is exponential, it is meant for short histories (up to 63 operations).
+ */
+final class LinearizabilityChecker {
+
+    enum OperationType {
+        ADD, REMOVE, BOOK, RELEASE, COUNT
+    }
+
+    static final class Operation {
+
+        final int threadIdx;
+        final OperationType operationType;
+        final ParkingSlotType parkingSlotType;
+        final String parkingSlotId;
+        long invocationTime;
+        long responseTime;
+        String result;
+
+        Operation(int threadIdx, OperationType operationType, ParkingSlotType parkingSlotType, String parkingSlotId) {
+            this.threadIdx = threadIdx;
+            this.operationType = operationType;
+            this.parkingSlotType = parkingSlotType;
+            this.parkingSlotId = parkingSlotId;
+        }
+
+        @Override
+        public String toString() {
+            return "thread" + threadIdx + " [" + invocationTime + ", " + responseTime + "] " + operationType + "("
+                    + (parkingSlotType != null ? parkingSlotType : "") + (parkingSlotId != null ? parkingSlotId : "")
+                    + ") -> " + result;
+        }
+    }
+
+    /**
+     * The sequential specification of the parking.
+     */
+    static final class ParkingModel {
+
+        private final Map<String, ParkingSlotType> parkingSlots = new TreeMap<>();
+        private final Set<String> bookedParkingSlotIds = new TreeSet<>();
+
+        ParkingModel add(ParkingSlotType parkingSlotType, String parkingSlotId) {
+            parkingSlots.put(parkingSlotId, parkingSlotType);
+            return this;
+        }
+
+        private ParkingModel copy() {
+            ParkingModel parkingModel = new ParkingModel();
+            parkingModel.parkingSlots.putAll(parkingSlots);
+            parkingModel.bookedParkingSlotIds.addAll(bookedParkingSlotIds);
+            return parkingModel;
+        }
+
+        private long getNbVacantParkingSlot(ParkingSlotType parkingSlotType) {
+            return parkingSlots.entrySet().stream()
+                    .filter(e -> e.getValue() == parkingSlotType && !bookedParkingSlotIds.contains(e.getKey()))
+                    .count();
+        }
+
+        /**
+         * @return the model after the operation, null if the operation result is not a possible one
+         */
+        private ParkingModel apply(Operation operation) {
+            ParkingModel next = copy();
+            String id = operation.parkingSlotId;
+            switch (operation.operationType) {
+                case ADD:
+                    if (parkingSlots.containsKey(id)) {
+                        return "assigned".equals(operation.result) ? next : null;
+                    }
+                    next.parkingSlots.put(id, operation.parkingSlotType);
+                    return "ok".equals(operation.result) ? next : null;
+                case REMOVE:
+                    if (!parkingSlots.containsKey(id)) {
+                        return "missing".equals(operation.result) ? next : null;
+                    }
+                    if (bookedParkingSlotIds.contains(id)) {
+                        return "booked".equals(operation.result) ? next : null;
+                    }
+                    next.parkingSlots.remove(id);
+                    return "ok".equals(operation.result) ? next : null;
+                case BOOK: // any vacant parking slot of the type is a possible result.
+                    if (getNbVacantParkingSlot(operation.parkingSlotType) == 0) {
+                        return "null".equals(operation.result) ? next : null;
+                    }
+                    if (parkingSlots.get(operation.result) != operation.parkingSlotType
+                            || bookedParkingSlotIds.contains(operation.result)) {
+                        return null;
+                    }
+                    next.bookedParkingSlotIds.add(operation.result);
+                    return next;
+                case RELEASE:
+                    if (!bookedParkingSlotIds.contains(id)) {
+                        return ParkingResultCode.NOT_BOOKED.name().equals(operation.result) ? next : null;
+                    }
+                    next.bookedParkingSlotIds.remove(id);
+                    return ParkingResultCode.OK.name().equals(operation.result) ? next : null;
+                case COUNT:
+                    return String.valueOf(getNbVacantParkingSlot(operation.parkingSlotType)).equals(operation.result)
+                            ? next : null;
+                default:
+                    throw new IllegalStateException("unknown operation " + operation.operationType);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return parkingSlots + " " + bookedParkingSlotIds;
+        }
+    }
+
+    private LinearizabilityChecker() {
+    }
+
+    static boolean isLinearizable(List<Operation> history, ParkingModel initialModel) {
+        if (history.size() > 63) {
+            throw new IllegalArgumentException("cannot check the history, it has more than 63 operations.");
+        }
+        return search(history, 0L, initialModel, new HashSet<>());
+    }
+
+    private static boolean search(List<Operation> history, long linearized, ParkingModel model, Set<String> visited) {
+        if (linearized == (1L << history.size()) - 1) {
+            return true;
+        }
+        if (!visited.add(linearized + " " + model)) {
+            return false; // already explored from the same point.
+        }
+        for (int opIdx = 0; opIdx < history.size(); opIdx++) {
+            if ((linearized & (1L << opIdx)) == 0 && isMinimal(history, linearized, opIdx)) {
+                ParkingModel next = model.apply(history.get(opIdx));
+                if (next != null && search(history, linearized | (1L << opIdx), next, visited)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // an operation can be linearized next if no other pending operation returned before it was invoked.
+    private static boolean isMinimal(List<Operation> history, long linearized, int opIdx) {
+        for (int otherIdx = 0; otherIdx < history.size(); otherIdx++) {
+            if ((linearized & (1L << otherIdx)) == 0
+                    && history.get(otherIdx).responseTime < history.get(opIdx).invocationTime) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class ManualEpochSecondClockTest implements WithAssertions {
+
+    @Test
+    public void theClockShouldOnlyMoveWhenAsked() {
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+
+        // check.
+        assertThat(clock.getEpochSecond()).isEqualTo(1000);
+        clock.advance(3600);
+        assertThat(clock.getEpochSecond()).isEqualTo(4600);
+        clock.set(2000);
+        assertThat(clock.getEpochSecond()).isEqualTo(2000);
+    }
+
+    @Test
+    public void illegalArgumentsShouldThrowTheExpectedException() {
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+
+        // check.
+        assertThatThrownBy(() -> new ManualEpochSecondClock(0)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("cannot set the clock, epochSecond field is not positive.");
+        assertThatThrownBy(() -> clock.advance(-1)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("cannot advance the clock, nbSeconds field is negative.");
+    }
+
+    @Test
+    public void aParkingSlotShouldBeBilledAccordingToTheManualClock() throws ParkingSlotException {
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+        ParkingSlot parkingSlot = new ParkingSlot("C1", ParkingSlotType.GASOLINE, clock);
+        parkingSlot.book();
+        clock.advance(7200);
+
+        // check.
+        assertThat(parkingSlot.release()).isEqualTo(7200);
+    }
+}
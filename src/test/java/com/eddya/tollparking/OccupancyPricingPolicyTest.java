@@ -0,0 +1,146 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class OccupancyPricingPolicyTest implements WithAssertions {
+
+    private static final int HOUR = PricingPolicy.NB_SECOND_PER_HOUR;
+
+    @Test
+    public void constructorShouldSetMembersWithTheExpectedValues() {
+        OccupancyPricingPolicy occupancyPricingPolicy = new OccupancyPricingPolicy(200, 0.5, 2);
+
+        // check.
+        assertThat(occupancyPricingPolicy.getPricePerHourInCts()).isEqualTo(200);
+        assertThat(occupancyPricingPolicy.getCurrentPricePerHourInCts(ParkingSlotType.GASOLINE)).isEqualTo(200);
+        assertThatThrownBy(() -> new OccupancyPricingPolicy(200, 1, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OccupancyPricingPolicy(200, 0.5, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void getPricePerHourInCtsShouldRiseAboveTheSurgeThreshold() {
+        OccupancyPricingPolicy occupancyPricingPolicy = new OccupancyPricingPolicy(200, 0.5, 2);
+
+        // check.
+        assertThat(occupancyPricingPolicy.getPricePerHourInCts(0)).isEqualTo(200);
+        assertThat(occupancyPricingPolicy.getPricePerHourInCts(0.5)).isEqualTo(200);
+        assertThat(occupancyPricingPolicy.getPricePerHourInCts(0.75)).isEqualTo(300);
+        assertThat(occupancyPricingPolicy.getPricePerHourInCts(1)).isEqualTo(400);
+    }
+
+    @Test
+    public void withoutPriceChangeTheBillShouldBeTheSameAsPerHourPricing() {
+        OccupancyPricingPolicy occupancyPricingPolicy = new OccupancyPricingPolicy(350, 0.5, 2);
+
+        // check.
+        assertThat(occupancyPricingPolicy.computeBillInCts(20000)).isEqualTo(1750);
+        assertThat(occupancyPricingPolicy.computeBillInCts(ParkingSlotType.GASOLINE, 1000, 21000)).isEqualTo(1750);
+        assertThat(occupancyPricingPolicy.computeBillInCts(ParkingSlotType.GASOLINE, 1000, 1000 + 3300)).isEqualTo(0);
+    }
+
+    @Test
+    public void theRecomputedPricesShouldFollowTheOccupancyOfEachType()
+            throws ParkingBuilderException, ParkingSlotException {
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(10 * HOUR);
+        OccupancyPricingPolicy occupancyPricingPolicy = new OccupancyPricingPolicy(200, 0.5, 2);
+        TollParking tollParking = new TollParking(occupancyPricingPolicy, clock);
+        for (int slotIdx = 0; slotIdx < 4; slotIdx++) {
+            tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "GAZ" + slotIdx);
+            tollParking.addParkingSlot(ParkingSlotType.ELECTRIC_20KW, "E20" + slotIdx);
+        }
+        for (int bookingIdx = 0; bookingIdx < 3; bookingIdx++) {
+            tollParking.getParkingSlot(ParkingSlotType.GASOLINE);
+        }
+        occupancyPricingPolicy.recompute();
+
+        // check.
+        assertThat(occupancyPricingPolicy.getCurrentPricePerHourInCts(ParkingSlotType.GASOLINE)).isEqualTo(300);
+        assertThat(occupancyPricingPolicy.getCurrentPricePerHourInCts(ParkingSlotType.ELECTRIC_20KW)).isEqualTo(200);
+        assertThatThrownBy(() -> new TollParking(occupancyPricingPolicy, clock))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("cannot attach the pricing policy, it is already attached to a parking.");
+    }
+
+    @Test
+    public void eachPartOfTheStayShouldBeChargedAtThePriceInForce()
+            throws ParkingBuilderException, ParkingSlotException, ParkingSlotBookerException {
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(10 * HOUR);
+        OccupancyPricingPolicy occupancyPricingPolicy = new OccupancyPricingPolicy(200, 0.5, 2);
+        TollParking tollParking = new TollParking(occupancyPricingPolicy, clock);
+        tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "GAZ1");
+        tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "GAZ2");
+        String first = tollParking.getParkingSlot(ParkingSlotType.GASOLINE); // 50%: base price.
+        occupancyPricingPolicy.recompute();
+        clock.advance(2 * HOUR);
+        String second = tollParking.getParkingSlot(ParkingSlotType.GASOLINE); // 100%: twice the base price.
+        occupancyPricingPolicy.recompute();
+        clock.advance(HOUR + HOUR / 2);
+
+        // check: 2h at 200 then 1h at 400 (the last half hour is not completed).
+        assertThat(tollParking.releaseParkingSlot(first)).isEqualTo(2 * 200 + 400);
+        occupancyPricingPolicy.recompute(); // back to 50%.
+        clock.advance(HOUR);
+        // 2 completed hours: 1h30 at 400 then 30 min at 200.
+        assertThat(tollParking.releaseParkingSlot(second)).isEqualTo(600 + 100);
+    }
+
+    @Test
+    public void aClockSetBackShouldNotPublishPricesBeforeTheLastOnes()
+            throws ParkingBuilderException, ParkingSlotException, ParkingSlotBookerException {
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(10 * HOUR);
+        OccupancyPricingPolicy occupancyPricingPolicy = new OccupancyPricingPolicy(200, 0.5, 2);
+        TollParking tollParking = new TollParking(occupancyPricingPolicy, clock);
+        for (int slotIdx = 0; slotIdx < 4; slotIdx++) {
+            tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "GAZ" + slotIdx);
+        }
+        String first = tollParking.getParkingSlot(ParkingSlotType.GASOLINE);
+        tollParking.getParkingSlot(ParkingSlotType.GASOLINE); // 50%: base price.
+        occupancyPricingPolicy.recompute();
+        clock.advance(2 * HOUR);
+        tollParking.getParkingSlot(ParkingSlotType.GASOLINE); // 75%: 300.
+        occupancyPricingPolicy.recompute();
+        clock.set(11 * HOUR); // the wall clock steps backwards.
+        tollParking.getParkingSlot(ParkingSlotType.GASOLINE); // 100%: 400, published at 12h instead of 11h.
+        occupancyPricingPolicy.recompute();
+        clock.set(15 * HOUR);
+
+        // check: 2h at 200 then 3h at 400.
+        assertThat(tollParking.releaseParkingSlot(first)).isEqualTo(2 * 200 + 3 * 400);
+    }
+
+    @Test
+    public void theHistoryShouldDropThePricesOlderThanTheRetention() {
+        OccupancyPricingPolicy.RateHistory rateHistory = new OccupancyPricingPolicy.RateHistory(
+                new long[]{0}, new int[][]{{100}});
+        rateHistory = rateHistory.append(10 * HOUR, new int[]{200}, 0);
+        rateHistory = rateHistory.append(20 * HOUR, new int[]{300}, 0);
+        rateHistory = rateHistory.append(20 * HOUR, new int[]{400}, 0); // same second: replaced.
+        OccupancyPricingPolicy.RateHistory pruned = rateHistory.append(30 * HOUR, new int[]{500}, 25 * HOUR);
+
+        // check.
+        assertThat(rateHistory.getAmount(0, 9 * HOUR, 21 * HOUR)).isEqualTo((100 + 10 * 200 + 400) * (long) HOUR);
+        assertThat(pruned.getAmount(0, 9 * HOUR, 31 * HOUR)).isEqualTo((21 * 400 + 500) * (long) HOUR);
+    }
+
+    @Test
+    public void theBackgroundScheduleShouldPublishThePrices() throws Exception {
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(10 * HOUR);
+        try (OccupancyPricingPolicy occupancyPricingPolicy = new OccupancyPricingPolicy(200, 0.5, 2)) {
+            TollParking tollParking = new TollParking(occupancyPricingPolicy, clock);
+            tollParking.addParkingSlot(ParkingSlotType.ELECTRIC_50KW, "E501");
+            tollParking.getParkingSlot(ParkingSlotType.ELECTRIC_50KW);
+            occupancyPricingPolicy.start(1);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (occupancyPricingPolicy.getCurrentPricePerHourInCts(ParkingSlotType.ELECTRIC_50KW) != 400
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            // check.
+            assertThat(occupancyPricingPolicy.getCurrentPricePerHourInCts(ParkingSlotType.ELECTRIC_50KW))
+                    .isEqualTo(400);
+        }
+    }
+}
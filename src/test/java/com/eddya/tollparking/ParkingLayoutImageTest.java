@@ -0,0 +1,114 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ParkingLayoutImageTest implements WithAssertions {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void aSavedLayoutShouldBeLoadedBack() throws IOException, ParkingBuilderException, ParkingSlotException {
+        Path layoutImage = temporaryFolder.newFile("layout.img").toPath();
+        TollParking tollParking = new TollParking(new PerHourPricingPolicy(250));
+        tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "L1-GAZ1");
+        tollParking.addParkingSlot(ParkingSlotType.ELECTRIC_50KW, "L1-É501");
+        tollParking.getParkingSlot(ParkingSlotType.GASOLINE); // bookings are not saved.
+        tollParking.saveParkingLayout(layoutImage);
+        TollParking restarted = new TollParking(new PerHourPricingPolicy(250));
+        restarted.loadParkingLayout(layoutImage);
+
+        // check.
+        assertThat(restarted.getParkingSnapshot().stream()
+                .map(s -> s.getId() + "/" + s.getParkingSlotType() + "/" + s.isVacant()).collect(Collectors.toList()))
+                .containsExactlyInAnyOrder("L1-GAZ1/GASOLINE/true", "L1-É501/ELECTRIC_50KW/true");
+        assertThat(restarted.getParkingSlot(ParkingSlotType.GASOLINE)).isEqualTo("L1-GAZ1");
+        assertThat(restarted.getNbVacantParkingSlot(ParkingSlotType.ELECTRIC_50KW)).isEqualTo(1);
+    }
+
+    @Test
+    public void loadingAnAlreadyAssignedIdentifierShouldAddNothing() throws IOException, ParkingBuilderException {
+        Path layoutImage = temporaryFolder.newFile("layout.img").toPath();
+        TollParking tollParking = new TollParking(new PerHourPricingPolicy(250));
+        tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "GAZ1");
+        tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "GAZ2");
+        tollParking.saveParkingLayout(layoutImage);
+        tollParking.removeParkingSlot("GAZ1");
+
+        // check.
+        assertThatThrownBy(() -> tollParking.loadParkingLayout(layoutImage)).isInstanceOf(
+                ParkingBuilderException.class)
+                .hasMessage("cannot add parking slot GAZ2, the identifier is already assigned.");
+        assertThat(tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE)).isEqualTo(1);
+    }
+
+    @Test
+    public void loadingAnInvalidImageShouldThrowTheExpectedException() throws IOException {
+        Path layoutImage = temporaryFolder.newFile("layout.img").toPath();
+        Files.write(layoutImage, "not a layout image".getBytes());
+        Path truncatedImage = temporaryFolder.newFile("truncated.img").toPath();
+        Files.write(truncatedImage, new byte[]{0x54, 0x50, 0x4C, 0x49, 0, 0, 0, 1, 0, 0, 0, 2, 0, 0, 1, 'A', 0, 0});
+        Path truncatedIdImage = temporaryFolder.newFile("truncatedId.img").toPath();
+        Files.write(truncatedIdImage, new byte[]{0x54, 0x50, 0x4C, 0x49, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 5});
+        Path negativeCountImage = temporaryFolder.newFile("negativeCount.img").toPath();
+        Files.write(negativeCountImage, new byte[]{0x54, 0x50, 0x4C, 0x49, 0, 0, 0, 1, -1, -1, -1, -1});
+        Path hugeCountImage = temporaryFolder.newFile("hugeCount.img").toPath();
+        Files.write(hugeCountImage, new byte[]{0x54, 0x50, 0x4C, 0x49, 0, 0, 0, 1, 0x7F, -1, -1, -1, 0, 0, 1, 'A'});
+        TollParking tollParking = new TollParking(new PerHourPricingPolicy(250));
+
+        // check.
+        assertThatThrownBy(() -> tollParking.loadParkingLayout(layoutImage)).isInstanceOf(
+                ParkingBuilderException.class)
+                .hasMessage("cannot read parking layout " + layoutImage + ", it is not a layout image.");
+        assertThatThrownBy(() -> tollParking.loadParkingLayout(truncatedImage)).isInstanceOf(
+                ParkingBuilderException.class)
+                .hasMessage("cannot read parking layout " + truncatedImage + ", it is truncated.");
+        assertThatThrownBy(() -> tollParking.loadParkingLayout(truncatedIdImage)).isInstanceOf(
+                ParkingBuilderException.class)
+                .hasMessage("cannot read parking layout " + truncatedIdImage + ", invalid identifier length 5.");
+        assertThatThrownBy(() -> tollParking.loadParkingLayout(negativeCountImage)).isInstanceOf(
+                ParkingBuilderException.class)
+                .hasMessage("cannot read parking layout " + negativeCountImage + ", invalid number of slots -1.");
+        assertThatThrownBy(() -> tollParking.loadParkingLayout(hugeCountImage)).isInstanceOf(
+                ParkingBuilderException.class)
+                .hasMessage("cannot read parking layout " + hugeCountImage + ", invalid number of slots "
+                        + Integer.MAX_VALUE + ".");
+        assertThat(tollParking.getParkingSnapshot().size()).isEqualTo(0);
+    }
+
+    @Test
+    public void aLayoutSpanningSeveralSnapshotChunksShouldBeLoadedInBulk()
+            throws IOException, ParkingBuilderException, ParkingSlotException {
+        Path layoutImage = temporaryFolder.newFile("layout.img").toPath();
+        int nbSlotsPerType = 2 * ParkingSnapshotPublisher.CHUNK_SIZE + 1;
+        List<ParkingSlotState> parkingSlots = new ArrayList<>();
+        for (int slotIdx = 1; slotIdx <= nbSlotsPerType; slotIdx++) {
+            for (ParkingSlotType parkingSlotType : ParkingSlotType.values()) {
+                parkingSlots.add(new ParkingSlotState(parkingSlotType.name() + "-" + slotIdx, parkingSlotType, 0));
+            }
+        }
+        ParkingLayoutImage.write(layoutImage, parkingSlots);
+        TollParking tollParking = new TollParking(new PerHourPricingPolicy(250), new ManualEpochSecondClock(1000));
+        tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "GAZ1"); // added before the layout.
+        tollParking.loadParkingLayout(layoutImage);
+        String bookedId = tollParking.getParkingSlot(ParkingSlotType.ELECTRIC_20KW);
+
+        // check.
+        assertThat(tollParking.getParkingSnapshot().stream().map(ParkingSlotState::getId)
+                .collect(Collectors.toSet())).hasSize(3 * nbSlotsPerType + 1)
+                .contains("GAZ1", "GASOLINE-1", "ELECTRIC_50KW-" + nbSlotsPerType);
+        assertThat(tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE)).isEqualTo(nbSlotsPerType + 1);
+        assertThat(tollParking.getNbVacantParkingSlot(ParkingSlotType.ELECTRIC_20KW)).isEqualTo(nbSlotsPerType - 1);
+        assertThat(tollParking.recordPowerSample(bookedId, 1_000_000, 20000)).isTrue();
+    }
+}
@@ -0,0 +1,154 @@
+package com.eddya.tollparking;
+
+import com.eddya.tollparking.LinearizabilityChecker.Operation;
+import com.eddya.tollparking.LinearizabilityChecker.OperationType;
+import com.eddya.tollparking.LinearizabilityChecker.ParkingModel;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Random concurrent histories of book/release/add/remove/count are recorded, then checked against the sequential
+ * parking model.
+ */
+public class ParkingLinearizabilityTest implements WithAssertions {
+
+    private static final int NB_THREADS = 3;
+    private static final int NB_OPERATIONS_PER_THREAD = 5;
+    private static final String[] PARKING_SLOT_IDS = {"G1", "G2", "G3", "E1", "E2"};
+
+    private static Operation anOperation(int threadIdx, OperationType operationType, ParkingSlotType parkingSlotType,
+                                         String parkingSlotId, long invocationTime, long responseTime, String result) {
+        Operation operation = new Operation(threadIdx, operationType, parkingSlotType, parkingSlotId);
+        operation.invocationTime = invocationTime;
+        operation.responseTime = responseTime;
+        operation.result = result;
+        return operation;
+    }
+
+    private static Operation aRandomOperation(int threadIdx, Random random) {
+        String parkingSlotId = PARKING_SLOT_IDS[random.nextInt(PARKING_SLOT_IDS.length)];
+        ParkingSlotType parkingSlotType = parkingSlotId.startsWith("G") ? ParkingSlotType.GASOLINE
+                : ParkingSlotType.ELECTRIC_20KW;
+        switch (random.nextInt(8)) { // mostly bookings and releases.
+            case 0:
+                return new Operation(threadIdx, OperationType.ADD, parkingSlotType, parkingSlotId);
+            case 1:
+                return new Operation(threadIdx, OperationType.REMOVE, null, parkingSlotId);
+            case 2:
+                return new Operation(threadIdx, OperationType.COUNT, parkingSlotType, null);
+            case 3:
+            case 4:
+            case 5:
+                return new Operation(threadIdx, OperationType.BOOK, parkingSlotType, null);
+            default:
+                return new Operation(threadIdx, OperationType.RELEASE, null, parkingSlotId);
+        }
+    }
+
+    private static void execute(TollParking tollParking, Operation operation) throws ParkingSlotException {
+        operation.invocationTime = System.nanoTime();
+        switch (operation.operationType) {
+            case ADD:
+                try {
+                    tollParking.addParkingSlot(operation.parkingSlotType, operation.parkingSlotId);
+                    operation.result = "ok";
+                } catch (ParkingBuilderException e) {
+                    operation.result = "assigned";
+                }
+                break;
+            case REMOVE:
+                try {
+                    tollParking.removeParkingSlot(operation.parkingSlotId);
+                    operation.result = "ok";
+                } catch (ParkingBuilderException e) {
+                    operation.result = e.getMessage().endsWith("is booked.") ? "booked" : "missing";
+                }
+                break;
+            case BOOK:
+                operation.result = String.valueOf(tollParking.getParkingSlot(operation.parkingSlotType));
+                break;
+            case RELEASE:
+                operation.result = tollParking.tryReleaseParkingSlot(operation.parkingSlotId, new ParkingResult())
+                        .name();
+                break;
+            case COUNT:
+                operation.result = String.valueOf(tollParking.getNbVacantParkingSlot(operation.parkingSlotType));
+                break;
+        }
+        operation.responseTime = System.nanoTime();
+    }
+
+    private static List<Operation> recordHistory(TollParking tollParking, long seed) throws InterruptedException {
+        List<Operation> history = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] threads = new Thread[NB_THREADS];
+        for (int threadIdx = 0; threadIdx < NB_THREADS; threadIdx++) {
+            int actorIdx = threadIdx;
+            Random random = new Random(seed * NB_THREADS + threadIdx);
+            threads[threadIdx] = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    for (int opIdx = 0; opIdx < NB_OPERATIONS_PER_THREAD; opIdx++) {
+                        Operation operation = aRandomOperation(actorIdx, random);
+                        execute(tollParking, operation);
+                        history.add(operation);
+                    }
+                } catch (InterruptedException | ParkingSlotException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads[threadIdx].start();
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return history;
+    }
+
+    @Test
+    public void concurrentHistoriesShouldBeLinearizable() throws Exception {
+        int nbRounds = StressHarness.ITERATIONS / 4;
+        for (long seed = 0; seed < nbRounds; seed++) {
+            TollParking tollParking = new TollParking(new PerHourPricingPolicy(250), new ManualEpochSecondClock(1000));
+            tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "G1");
+            tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "G2");
+            tollParking.addParkingSlot(ParkingSlotType.ELECTRIC_20KW, "E1");
+            ParkingModel initialModel = new ParkingModel().add(ParkingSlotType.GASOLINE, "G1")
+                    .add(ParkingSlotType.GASOLINE, "G2").add(ParkingSlotType.ELECTRIC_20KW, "E1");
+            List<Operation> history = recordHistory(tollParking, seed);
+
+            // check.
+            assertThat(history).hasSize(NB_THREADS * NB_OPERATIONS_PER_THREAD);
+            assertThat(LinearizabilityChecker.isLinearizable(history, initialModel))
+                    .as("round %d is not linearizable: %s", seed, history).isTrue();
+        }
+    }
+
+    @Test
+    public void theCheckerShouldRejectADoubleBooking() {
+        ParkingModel initialModel = new ParkingModel().add(ParkingSlotType.GASOLINE, "G1");
+        List<Operation> overlappingHistory = Arrays.asList(
+                anOperation(0, OperationType.BOOK, ParkingSlotType.GASOLINE, null, 0, 10, "G1"),
+                anOperation(1, OperationType.BOOK, ParkingSlotType.GASOLINE, null, 5, 15, "null"),
+                anOperation(1, OperationType.COUNT, ParkingSlotType.GASOLINE, null, 20, 25, "0"));
+        List<Operation> doubleBookingHistory = Arrays.asList(
+                anOperation(0, OperationType.BOOK, ParkingSlotType.GASOLINE, null, 0, 10, "G1"),
+                anOperation(1, OperationType.BOOK, ParkingSlotType.GASOLINE, null, 5, 15, "G1"));
+        List<Operation> staleCountHistory = Arrays.asList(
+                anOperation(0, OperationType.BOOK, ParkingSlotType.GASOLINE, null, 0, 10, "G1"),
+                anOperation(1, OperationType.COUNT, ParkingSlotType.GASOLINE, null, 20, 25, "1"));
+
+        // check.
+        assertThat(LinearizabilityChecker.isLinearizable(overlappingHistory, initialModel)).isTrue();
+        assertThat(LinearizabilityChecker.isLinearizable(doubleBookingHistory, initialModel)).isFalse();
+        assertThat(LinearizabilityChecker.isLinearizable(staleCountHistory, initialModel)).isFalse();
+    }
+}
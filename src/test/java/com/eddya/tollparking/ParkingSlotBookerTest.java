@@ -76,4 +76,49 @@ public class ParkingSlotBookerTest implements WithAssertions {
         parkingSlotBooker.getParkingSlot(ParkingSlotType.GASOLINE);
         assertThat(parkingSlotBooker.getNbVacantParkingSlot(ParkingSlotType.GASOLINE)).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void releaseParkingSlotWithAResultHolderShouldReturnTheExpectedCodes() throws ParkingSlotException {
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(10000);
+        List<ParkingSlot> parkingSlots = new ArrayList<>();
+        parkingSlots.add(new ParkingSlot("E201", ParkingSlotType.ELECTRIC_20KW, clock));
+        ParkingSlotBooker parkingSlotBooker = new ParkingSlotBooker(parkingSlots);
+        ParkingResult parkingResult = new ParkingResult();
+        parkingSlotBooker.getParkingSlot(ParkingSlotType.ELECTRIC_20KW);
+        clock.advance(5000);
+
+        // -- 1st call: the parking slot is released.
+        assertThat(parkingSlotBooker.releaseParkingSlot("E201", parkingResult)).isEqualTo(ParkingResultCode.OK);
+        assertThat(parkingResult.getCode()).isEqualTo(ParkingResultCode.OK);
+        assertThat(parkingResult.getParkingSlotId()).isEqualTo("E201");
+        assertThat(parkingResult.getParkingSlotType()).isEqualTo(ParkingSlotType.ELECTRIC_20KW);
+        assertThat(parkingResult.getBookingStartTime()).isEqualTo(10000L);
+        assertThat(parkingResult.getBookedTime()).isEqualTo(5000L);
+
+        // -- 2nd call: the same holder reports the failure.
+        assertThat(parkingSlotBooker.releaseParkingSlot("E201", parkingResult)).isEqualTo(ParkingResultCode.NOT_BOOKED);
+        assertThat(parkingResult.getCode()).isEqualTo(ParkingResultCode.NOT_BOOKED);
+        assertThat(parkingResult.getParkingSlotId()).isNull();
+        assertThat(parkingResult.getBookedTime()).isEqualTo(0L);
+    }
+
+    @Test
+    public void getParkingSlotWithAResultHolderShouldReturnTheExpectedCodes() throws ParkingSlotException {
+        List<ParkingSlot> parkingSlots = new ArrayList<>();
+        parkingSlots.add(new ParkingSlot("E201", ParkingSlotType.ELECTRIC_20KW, new ManualEpochSecondClock(10000)));
+        ParkingSlotBooker parkingSlotBooker = new ParkingSlotBooker(parkingSlots);
+        ParkingResult parkingResult = new ParkingResult();
+
+        // -- 1st call: the parking slot is booked.
+        assertThat(parkingSlotBooker.getParkingSlot(ParkingSlotType.ELECTRIC_20KW, parkingResult))
+                .isEqualTo(ParkingResultCode.OK);
+        assertThat(parkingResult.getParkingSlotId()).isEqualTo("E201");
+        assertThat(parkingResult.getBookingStartTime()).isEqualTo(10000L);
+
+        // -- 2nd call: the same holder reports the failure.
+        assertThat(parkingSlotBooker.getParkingSlot(ParkingSlotType.ELECTRIC_20KW, parkingResult))
+                .isEqualTo(ParkingResultCode.NO_VACANT_SLOT);
+        assertThat(parkingResult.getParkingSlotId()).isNull();
+        assertThat(parkingResult.getBookingStartTime()).isEqualTo(0L);
+    }
+}
@@ -0,0 +1,109 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ParkingSlotFinderTest implements WithAssertions {
+
+    private final ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+    private ParkingBuilder parkingBuilder;
+    private ParkingSlotBooker parkingSlotBooker;
+    private ParkingSlotFinder parkingSlotFinder;
+
+    @Before
+    public void setUp() throws ParkingBuilderException {
+        parkingBuilder = new ParkingBuilder(clock);
+        parkingSlotBooker = new ParkingSlotBooker(parkingBuilder.getParkingSlots(),
+                parkingBuilder.getParkingSlotListeners());
+        parkingSlotFinder = new ParkingSlotFinder(parkingBuilder);
+        for (int level = 1; level <= 3; level++) {
+            for (int slotIdx = 1; slotIdx <= 10; slotIdx++) {
+                parkingBuilder.addParkingSlot(ParkingSlotType.GASOLINE, "L" + level + "-GAZ" + slotIdx);
+                parkingBuilder.addParkingSlot(ParkingSlotType.ELECTRIC_20KW, "L" + level + "-E20" + slotIdx);
+            }
+        }
+    }
+
+    private List<String> ids(ParkingSlotQuery query) {
+        return parkingSlotFinder.findParkingSlots(query).map(ParkingSlotState::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void findParkingSlotsShouldFilterByTypeStateAndIdPrefix() throws ParkingSlotException {
+        for (int bookingIdx = 0; bookingIdx < 25; bookingIdx++) {
+            parkingSlotBooker.getParkingSlot(ParkingSlotType.ELECTRIC_20KW);
+        }
+
+        // check.
+        assertThat(ids(ParkingSlotQuery.all())).hasSize(60);
+        assertThat(ids(ParkingSlotQuery.all().ofType(ParkingSlotType.ELECTRIC_20KW).vacant())).hasSize(5);
+        assertThat(ids(ParkingSlotQuery.all().ofType(ParkingSlotType.ELECTRIC_20KW).booked())).hasSize(25);
+        assertThat(ids(ParkingSlotQuery.all().ofType(ParkingSlotType.GASOLINE).withIdPrefix("L3-")))
+                .hasSize(10).allMatch(id -> id.startsWith("L3-GAZ"));
+        assertThat(ids(ParkingSlotQuery.all().ofType(ParkingSlotType.ELECTRIC_50KW))).isEmpty();
+    }
+
+    @Test
+    public void findParkingSlotsShouldFilterByBookingAge() throws ParkingSlotException {
+        String oldBooking = parkingSlotBooker.getParkingSlot(ParkingSlotType.GASOLINE).getId();
+        clock.advance(20 * 3600);
+        parkingSlotBooker.getParkingSlot(ParkingSlotType.GASOLINE);
+        clock.advance(5 * 3600);
+
+        // check.
+        assertThat(ids(ParkingSlotQuery.all().bookedForAtLeast(24 * 3600))).containsExactly(oldBooking);
+        assertThat(ids(ParkingSlotQuery.all().bookedForAtLeast(3600))).hasSize(2);
+        assertThatThrownBy(() -> ParkingSlotQuery.all().bookedForAtLeast(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void findParkingSlotsShouldBeLazy() throws ParkingSlotException {
+        ParkingSlotQuery query = ParkingSlotQuery.all().ofType(ParkingSlotType.GASOLINE).booked();
+        Stream<ParkingSlotState> stream = parkingSlotFinder.findParkingSlots(query);
+        parkingSlotBooker.getParkingSlot(ParkingSlotType.GASOLINE);
+
+        // check: the stream reads the snapshot taken when it has been created.
+        assertThat(stream.count()).isEqualTo(0);
+        assertThat(parkingSlotFinder.findParkingSlots(query).count()).isEqualTo(1);
+    }
+
+    @Test
+    public void pagesShouldCoverAllTheMatchingSlotsOfTheSameSnapshot() throws ParkingSlotException {
+        ParkingSlotPage page = parkingSlotFinder.findParkingSlots(
+                ParkingSlotQuery.all().ofType(ParkingSlotType.ELECTRIC_20KW).vacant(), 7);
+        parkingSlotBooker.getParkingSlot(ParkingSlotType.ELECTRIC_20KW); // must not change the next pages.
+        List<String> ids = new ArrayList<>();
+        int nbPage = 1;
+        ids.addAll(page.getParkingSlots().stream().map(ParkingSlotState::getId).collect(Collectors.toList()));
+        while (page.hasNext()) {
+            page = page.next();
+            nbPage++;
+            assertThat(page.getParkingSlots().size()).isBetween(1, 7);
+            ids.addAll(page.getParkingSlots().stream().map(ParkingSlotState::getId).collect(Collectors.toList()));
+        }
+
+        // check.
+        assertThat(nbPage).isEqualTo(5);
+        assertThat(ids).hasSize(30).doesNotHaveDuplicates().allMatch(id -> id.contains("-E20"));
+        ParkingSlotPage lastPage = page;
+        assertThatThrownBy(lastPage::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void anExactlyFullPageShouldBeTheLastOne() {
+        ParkingSlotPage page = parkingSlotFinder.findParkingSlots(
+                ParkingSlotQuery.all().ofType(ParkingSlotType.GASOLINE), 30);
+
+        // check.
+        assertThat(page.getParkingSlots()).hasSize(30);
+        assertThat(page.hasNext()).isFalse();
+    }
+}
@@ -0,0 +1,125 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ParkingSnapshotPublisherTest implements WithAssertions {
+
+    private final ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+
+    private ParkingBuilder aParkingBuilder(int nbSlot) throws ParkingBuilderException {
+        ParkingBuilder parkingBuilder = new ParkingBuilder(clock);
+        for (int slotIdx = 0; slotIdx < nbSlot; slotIdx++) {
+            parkingBuilder.addParkingSlot(ParkingSlotType.GASOLINE, "GAZ" + slotIdx);
+        }
+        return parkingBuilder;
+    }
+
+    @Test
+    public void initiallyTheSnapshotIsEmpty() {
+        ParkingSnapshot snapshot = new ParkingBuilder(clock).getParkingSnapshot();
+
+        // check.
+        assertThat(snapshot.size()).isEqualTo(0);
+        assertThat(snapshot).isEmpty();
+    }
+
+    @Test
+    public void snapshotShouldReflectTheParkingAndBeReusedWhileTheParkingDoesNotChange()
+            throws ParkingBuilderException, ParkingSlotException {
+        ParkingBuilder parkingBuilder = aParkingBuilder(3);
+        ParkingSlotBooker parkingSlotBooker = new ParkingSlotBooker(parkingBuilder.getParkingSlots(),
+                parkingBuilder.getParkingSlotListeners());
+        String bookedId = parkingSlotBooker.getParkingSlot(ParkingSlotType.GASOLINE).getId();
+        ParkingSnapshot snapshot = parkingBuilder.getParkingSnapshot();
+
+        // check.
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.stream().map(ParkingSlotState::getId).collect(Collectors.toList()))
+                .containsExactlyInAnyOrder("GAZ0", "GAZ1", "GAZ2");
+        assertThat(snapshot.stream().filter(s -> !s.isVacant()).collect(Collectors.toList()))
+                .extracting(ParkingSlotState::getId, ParkingSlotState::getBookingStartTime)
+                .containsExactly(tuple(bookedId, 1000L));
+        assertThat(parkingBuilder.getParkingSnapshot()).isSameAs(snapshot);
+    }
+
+    @Test
+    public void aSnapshotShouldNotChangeWhenTheParkingChanges()
+            throws ParkingBuilderException, ParkingSlotException, ParkingSlotBookerException {
+        ParkingBuilder parkingBuilder = aParkingBuilder(3);
+        ParkingSlotBooker parkingSlotBooker = new ParkingSlotBooker(parkingBuilder.getParkingSlots(),
+                parkingBuilder.getParkingSlotListeners());
+        ParkingSnapshot before = parkingBuilder.getParkingSnapshot();
+        String bookedId = parkingSlotBooker.getParkingSlot(ParkingSlotType.GASOLINE).getId();
+        parkingBuilder.removeParkingSlot(bookedId.equals("GAZ0") ? "GAZ1" : "GAZ0");
+        ParkingSnapshot after = parkingBuilder.getParkingSnapshot();
+        parkingSlotBooker.releaseParkingSlot(bookedId);
+
+        // check.
+        assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+        assertThat(before.size()).isEqualTo(3);
+        assertThat(before).allMatch(ParkingSlotState::isVacant);
+        assertThat(after.size()).isEqualTo(2);
+        assertThat(after).filteredOn(s -> !s.isVacant()).extracting(ParkingSlotState::getId).containsExactly(bookedId);
+        assertThat(parkingBuilder.getParkingSnapshot()).allMatch(ParkingSlotState::isVacant);
+    }
+
+    @Test
+    public void successiveSnapshotsShouldShareTheUnchangedChunks() throws ParkingBuilderException, ParkingSlotException {
+        ParkingBuilder parkingBuilder = aParkingBuilder(3 * ParkingSnapshotPublisher.CHUNK_SIZE);
+        ParkingSlotBooker parkingSlotBooker = new ParkingSlotBooker(parkingBuilder.getParkingSlots(),
+                parkingBuilder.getParkingSlotListeners());
+        ParkingSnapshot before = parkingBuilder.getParkingSnapshot();
+        parkingSlotBooker.getParkingSlot(ParkingSlotType.GASOLINE);
+        ParkingSnapshot after = parkingBuilder.getParkingSnapshot();
+
+        // check: a single chunk has been copied.
+        int nbSharedChunk = 0;
+        for (int chunkIdx = 0; chunkIdx < 3; chunkIdx++) {
+            if (before.getChunk(ParkingSlotType.GASOLINE, chunkIdx)
+                    == after.getChunk(ParkingSlotType.GASOLINE, chunkIdx)) {
+                nbSharedChunk++;
+            }
+        }
+        assertThat(nbSharedChunk).isEqualTo(2);
+        assertThat(after).filteredOn(s -> !s.isVacant()).hasSize(1);
+        assertThat(before).allMatch(ParkingSlotState::isVacant);
+    }
+
+    @Test
+    public void slotsAddedAtOnceShouldBePublishedWithoutAlteringTheSharedChunks() {
+        ParkingSnapshotPublisher parkingSnapshotPublisher = new ParkingSnapshotPublisher(new Object());
+        parkingSnapshotPublisher.onParkingSlotAdded(new ParkingSlot("GAZ", ParkingSlotType.GASOLINE, clock));
+        ParkingSnapshot before = parkingSnapshotPublisher.getSnapshot();
+        List<ParkingSlot> parkingSlots = new ArrayList<>();
+        for (int slotIdx = 0; slotIdx < 2 * ParkingSnapshotPublisher.CHUNK_SIZE; slotIdx++) {
+            parkingSlots.add(new ParkingSlot("GAZ" + slotIdx, ParkingSlotType.GASOLINE, clock));
+            parkingSlots.add(new ParkingSlot("E20" + slotIdx, ParkingSlotType.ELECTRIC_20KW, clock));
+        }
+        parkingSnapshotPublisher.onParkingSlotsAdded(parkingSlots);
+        ParkingSnapshot after = parkingSnapshotPublisher.getSnapshot();
+
+        // check.
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+        assertThat(before.stream().map(ParkingSlotState::getId).collect(Collectors.toList())).containsExactly("GAZ");
+        assertThat(after.size()).isEqualTo(4 * ParkingSnapshotPublisher.CHUNK_SIZE + 1);
+        assertThat(after.stream().map(ParkingSlotState::getId).collect(Collectors.toSet()))
+                .hasSize(4 * ParkingSnapshotPublisher.CHUNK_SIZE + 1);
+        assertThat(after.getChunk(ParkingSlotType.GASOLINE, 0))
+                .isNotSameAs(before.getChunk(ParkingSlotType.GASOLINE, 0));
+    }
+
+    @Test
+    public void getWithAnOutOfBoundIndexShouldThrowTheExpectedException() throws ParkingBuilderException {
+        ParkingSnapshot snapshot = aParkingBuilder(2).getParkingSnapshot();
+
+        // check.
+        assertThat(snapshot.get(1).getParkingSlotType()).isEqualTo(ParkingSlotType.GASOLINE);
+        assertThatThrownBy(() -> snapshot.get(2)).isInstanceOf(IndexOutOfBoundsException.class)
+                .hasMessage("cannot get parking slot state 2, size is 2.");
+    }
+}
@@ -0,0 +1,195 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Concurrency stress tests: each scenario checks that only the expected outcomes are observed (i.e. no lost or
+ * double booking) and reports how often each one occurred.
+ */
+public class ParkingStressTest implements WithAssertions {
+
+    private static TollParking aTollParking(String... gasolineParkingSlotIds) throws ParkingBuilderException {
+        TollParking tollParking = new TollParking(new PerHourPricingPolicy(250), new ManualEpochSecondClock(1000));
+        for (String parkingSlotId : gasolineParkingSlotIds) {
+            tollParking.addParkingSlot(ParkingSlotType.GASOLINE, parkingSlotId);
+        }
+        return tollParking;
+    }
+
+    private static TollParking aTollParkingWithABookedSlot() throws ParkingBuilderException, ParkingSlotException {
+        TollParking tollParking = aTollParking("C20");
+        tollParking.getParkingSlot(ParkingSlotType.GASOLINE);
+        return tollParking;
+    }
+
+    private static String removeParkingSlot(TollParking tollParking, String parkingSlotId) {
+        try {
+            tollParking.removeParkingSlot(parkingSlotId);
+            return "removed";
+        } catch (ParkingBuilderException e) {
+            return e.getMessage().endsWith("is booked.") ? "booked" : "missing";
+        }
+    }
+
+    private static void report(String scenario, Map<String, Integer> outcomes) {
+        StressHarness.report("%s: %s", scenario, outcomes);
+    }
+
+    @Test
+    public void twoGatesShouldNotBookTheLastSlotTwice() throws Exception {
+        Map<String, Integer> outcomes = StressHarness.run(StressHarness.ITERATIONS,
+                () -> aTollParking("C20"),
+                tollParking -> tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE),
+                tollParking -> tollParking.getParkingSlot(ParkingSlotType.GASOLINE),
+                tollParking -> tollParking.getParkingSlot(ParkingSlotType.GASOLINE));
+
+        // check.
+        report("book/book", outcomes);
+        assertThat(outcomes.keySet()).isSubsetOf("C20, null | 0", "null, C20 | 0");
+    }
+
+    @Test
+    public void aSlotShouldBeReleasedOnce() throws Exception {
+        Map<String, Integer> outcomes = StressHarness.run(StressHarness.ITERATIONS,
+                ParkingStressTest::aTollParkingWithABookedSlot,
+                tollParking -> tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE),
+                tollParking -> tollParking.tryReleaseParkingSlot("C20", new ParkingResult()),
+                tollParking -> tollParking.tryReleaseParkingSlot("C20", new ParkingResult()));
+
+        // check.
+        report("release/release", outcomes);
+        assertThat(outcomes.keySet()).isSubsetOf("OK, NOT_BOOKED | 1", "NOT_BOOKED, OK | 1");
+    }
+
+    @Test
+    public void aSlotShouldNotBeRemovedWhileBooked() throws Exception {
+        Map<String, Integer> outcomes = StressHarness.run(StressHarness.ITERATIONS,
+                () -> aTollParking("C20"),
+                tollParking -> tollParking.getParkingSnapshot().size(),
+                tollParking -> tollParking.getParkingSlot(ParkingSlotType.GASOLINE),
+                tollParking -> removeParkingSlot(tollParking, "C20"));
+
+        // check.
+        report("book/remove", outcomes);
+        assertThat(outcomes.keySet()).isSubsetOf("C20, booked | 1", "null, removed | 0");
+    }
+
+    @Test
+    public void aReleasedSlotShouldBeEitherRemovedOrRebooked() throws Exception {
+        Map<String, Integer> outcomes = StressHarness.run(StressHarness.ITERATIONS,
+                ParkingStressTest::aTollParkingWithABookedSlot,
+                tollParking -> tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE) + "/"
+                        + tollParking.getParkingSnapshot().size(),
+                tollParking -> tollParking.tryReleaseParkingSlot("C20", new ParkingResult()),
+                tollParking -> removeParkingSlot(tollParking, "C20"),
+                tollParking -> tollParking.getParkingSlot(ParkingSlotType.GASOLINE));
+
+        // check.
+        report("release/remove/book", outcomes);
+        assertThat(outcomes.keySet()).isSubsetOf(
+                "OK, booked, null | 1/1", // the remove and the book happened before the release.
+                "OK, booked, C20 | 0/1", // the remove happened before the release, the book after.
+                "OK, removed, null | 0/0"); // the remove happened between the release and the book.
+    }
+
+    @Test
+    public void theVacantCountShouldNeverBeTorn() throws Exception {
+        Map<String, Integer> outcomes = StressHarness.run(StressHarness.ITERATIONS,
+                () -> aTollParking("C20", "C21"),
+                tollParking -> tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE),
+                tollParking -> tollParking.getParkingSlot(ParkingSlotType.GASOLINE) != null,
+                tollParking -> tollParking.getParkingSlot(ParkingSlotType.GASOLINE) != null,
+                tollParking -> tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE));
+
+        // check.
+        report("book/book/count", outcomes);
+        assertThat(outcomes.keySet()).isSubsetOf("true, true, 0 | 0", "true, true, 1 | 0", "true, true, 2 | 0");
+    }
+
+    @Test
+    public void theParkingShouldStayConsistentUnderContention() throws Exception {
+        int nbGates = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        int nbOperationsPerGate = StressHarness.ITERATIONS * 50;
+        TollParking tollParking = aTollParking();
+        for (int slotIdx = 0; slotIdx < 100; slotIdx++) {
+            tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C" + slotIdx);
+        }
+        Set<String> heldParkingSlotIds = ConcurrentHashMap.newKeySet();
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicLong nbOperations = new AtomicLong();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int gateIdx = 0; gateIdx < nbGates; gateIdx++) {
+            long seed = gateIdx;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                List<String> parkingSlotIds = new ArrayList<>();
+                ParkingResult parkingResult = new ParkingResult();
+                try {
+                    startLatch.await();
+                    for (int opIdx = 0; opIdx < nbOperationsPerGate; opIdx++) {
+                        if (parkingSlotIds.isEmpty() || random.nextBoolean()) {
+                            String parkingSlotId = tollParking.getParkingSlot(ParkingSlotType.GASOLINE);
+                            if (parkingSlotId != null) {
+                                if (!heldParkingSlotIds.add(parkingSlotId)) {
+                                    failure.compareAndSet(null, parkingSlotId + " booked twice");
+                                }
+                                parkingSlotIds.add(parkingSlotId);
+                            }
+                        } else { // forget the slot before releasing it, another gate may book it right after.
+                            String parkingSlotId = parkingSlotIds.remove(random.nextInt(parkingSlotIds.size()));
+                            heldParkingSlotIds.remove(parkingSlotId);
+                            if (tollParking.tryReleaseParkingSlot(parkingSlotId, parkingResult)
+                                    != ParkingResultCode.OK) {
+                                failure.compareAndSet(null, parkingSlotId + " not released");
+                            }
+                        }
+                    }
+                    nbOperations.addAndGet(nbOperationsPerGate);
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e.toString());
+                }
+            }, "gate-" + gateIdx));
+        }
+        threads.add(new Thread(() -> { // a parking slot is temporarily made unavailable, again and again.
+            try {
+                startLatch.await();
+                for (int opIdx = 0; opIdx < nbOperationsPerGate / 10; opIdx++) {
+                    tollParking.addParkingSlot(ParkingSlotType.ELECTRIC_20KW, "E" + opIdx);
+                    tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE);
+                    tollParking.removeParkingSlot("E" + opIdx);
+                }
+            } catch (Exception e) {
+                failure.compareAndSet(null, e.toString());
+            }
+        }, "builder"));
+        threads.forEach(Thread::start);
+        long startTime = System.nanoTime();
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+
+        // check.
+        StressHarness.report("%d gates: %d operations in %.1f ms (%.0f operations/s)", nbGates, nbOperations.get(),
+                elapsedTime / 1e6, nbOperations.get() * 1e9 / elapsedTime);
+        assertThat(failure.get()).isNull();
+        assertThat(tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE))
+                .isEqualTo(100 - heldParkingSlotIds.size());
+        assertThat(tollParking.getNbVacantParkingSlot(ParkingSlotType.ELECTRIC_20KW)).isEqualTo(0);
+        assertThat(tollParking.findParkingSlots(ParkingSlotQuery.all().booked()).map(ParkingSlotState::getId))
+                .containsOnlyElementsOf(heldParkingSlotIds).hasSize(heldParkingSlotIds.size());
+    }
+}
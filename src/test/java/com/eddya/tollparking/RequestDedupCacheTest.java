@@ -0,0 +1,139 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestDedupCacheTest implements WithAssertions {
+
+    private static RequestDedupCache.Request<AtomicInteger> aBooking() {
+        return (nbExecutions, parkingResult) -> {
+            nbExecutions.incrementAndGet();
+            parkingResult.reset(ParkingResultCode.OK);
+            parkingResult.setParkingSlot("C" + nbExecutions.get(), ParkingSlotType.GASOLINE);
+            parkingResult.setBooking(nbExecutions.get(), 0);
+            return ParkingResultCode.OK;
+        };
+    }
+
+    @Test
+    public void aRequestShouldBeExecutedOnceUntilItExpires() throws ParkingSlotException {
+        ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+        RequestDedupCache requestDedupCache = new RequestDedupCache(clock, 64, 600);
+        AtomicInteger nbExecutions = new AtomicInteger();
+        ParkingResult parkingResult = new ParkingResult();
+        requestDedupCache.execute(42L, RequestDedupCache.Operation.BOOK, parkingResult, aBooking(), nbExecutions);
+        clock.advance(599);
+        ParkingResult retryResult = new ParkingResult();
+
+        // check.
+        assertThat(requestDedupCache.execute(42L, RequestDedupCache.Operation.BOOK, retryResult, aBooking(),
+                nbExecutions)).isEqualTo(ParkingResultCode.OK);
+        assertThat(retryResult.getParkingSlotId()).isEqualTo("C1");
+        assertThat(retryResult.getParkingSlotType()).isEqualTo(ParkingSlotType.GASOLINE);
+        assertThat(retryResult.getBookingStartTime()).isEqualTo(1);
+        assertThat(nbExecutions.get()).isEqualTo(1);
+        clock.advance(1);
+        requestDedupCache.execute(42L, RequestDedupCache.Operation.BOOK, retryResult, aBooking(), nbExecutions);
+        assertThat(retryResult.getBookingStartTime()).isEqualTo(2);
+        assertThat(nbExecutions.get()).isEqualTo(2);
+        assertThat(requestDedupCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void aFailedRequestShouldNotBeRemembered() throws ParkingSlotException {
+        RequestDedupCache requestDedupCache = new RequestDedupCache(new ManualEpochSecondClock(1000), 64, 600);
+        AtomicInteger nbExecutions = new AtomicInteger();
+        RequestDedupCache.Request<AtomicInteger> failingRequest = (argument, parkingResult) -> {
+            throw new ParkingSlotException("cannot book the parking slot, technical issue.");
+        };
+
+        // check.
+        assertThatThrownBy(() -> requestDedupCache.execute(42L, RequestDedupCache.Operation.BOOK,
+                new ParkingResult(), failingRequest, nbExecutions)).isInstanceOf(ParkingSlotException.class);
+        requestDedupCache.execute(42L, RequestDedupCache.Operation.BOOK, new ParkingResult(), aBooking(),
+                nbExecutions);
+        assertThat(nbExecutions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void onlyTheSuccessfulBookingsShouldBeRemembered() throws ParkingSlotException {
+        RequestDedupCache requestDedupCache = new RequestDedupCache(new ManualEpochSecondClock(1000), 64, 600);
+        AtomicInteger nbExecutions = new AtomicInteger();
+        RequestDedupCache.Request<AtomicInteger> fullParking = (argument, parkingResult) -> {
+            argument.incrementAndGet();
+            parkingResult.reset(ParkingResultCode.NO_VACANT_SLOT);
+            return ParkingResultCode.NO_VACANT_SLOT;
+        };
+        RequestDedupCache.Request<AtomicInteger> notBooked = (argument, parkingResult) -> {
+            argument.incrementAndGet();
+            parkingResult.reset(ParkingResultCode.NOT_BOOKED);
+            return ParkingResultCode.NOT_BOOKED;
+        };
+        ParkingResult parkingResult = new ParkingResult();
+
+        // check: a booking retried once a slot is freed gets it, a release retried returns the original outcome.
+        assertThat(requestDedupCache.execute(42L, RequestDedupCache.Operation.BOOK, parkingResult, fullParking,
+                nbExecutions)).isEqualTo(ParkingResultCode.NO_VACANT_SLOT);
+        assertThat(requestDedupCache.execute(42L, RequestDedupCache.Operation.BOOK, parkingResult, aBooking(),
+                nbExecutions)).isEqualTo(ParkingResultCode.OK);
+        assertThat(parkingResult.getParkingSlotId()).isEqualTo("C2");
+        assertThat(requestDedupCache.execute(43L, RequestDedupCache.Operation.RELEASE, parkingResult, notBooked,
+                nbExecutions)).isEqualTo(ParkingResultCode.NOT_BOOKED);
+        assertThat(requestDedupCache.execute(43L, RequestDedupCache.Operation.RELEASE, parkingResult, notBooked,
+                nbExecutions)).isEqualTo(ParkingResultCode.NOT_BOOKED);
+        assertThat(nbExecutions.get()).isEqualTo(3);
+        assertThat(requestDedupCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void theMostRecentRequestsShouldBeRememberedWithinTheCapacity() throws ParkingSlotException {
+        RequestDedupCache requestDedupCache = new RequestDedupCache(new ManualEpochSecondClock(1000), 1024, 600);
+        AtomicInteger nbExecutions = new AtomicInteger();
+        ParkingResult parkingResult = new ParkingResult();
+        for (long requestId = 1; requestId <= 100000; requestId++) {
+            requestDedupCache.execute(requestId * 7919, RequestDedupCache.Operation.BOOK, parkingResult, aBooking(),
+                    nbExecutions);
+        }
+
+        // check: the last requests are found after a heavy churn, the oldest ones have been evicted.
+        assertThat(requestDedupCache.size()).isEqualTo(1024);
+        for (long requestId = 100000; requestId > 100000 - 200; requestId--) {
+            requestDedupCache.execute(requestId * 7919, RequestDedupCache.Operation.BOOK, parkingResult, aBooking(),
+                    nbExecutions);
+            assertThat(parkingResult.getParkingSlotId()).isEqualTo("C" + requestId);
+        }
+        assertThat(nbExecutions.get()).isEqualTo(100000);
+        requestDedupCache.execute(7919L, RequestDedupCache.Operation.BOOK, parkingResult, aBooking(), nbExecutions);
+        assertThat(nbExecutions.get()).isEqualTo(100001);
+    }
+
+    @Test
+    public void aRetriedRequestShouldNotAllocate() throws ParkingSlotException {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        RequestDedupCache requestDedupCache = new RequestDedupCache(new ManualEpochSecondClock(1000), 1024, 600);
+        AtomicInteger nbExecutions = new AtomicInteger();
+        RequestDedupCache.Request<AtomicInteger> booking = aBooking();
+        ParkingResult parkingResult = new ParkingResult();
+        for (long requestId = 0; requestId < 10000; requestId++) { // warm-up.
+            requestDedupCache.execute(requestId % 512, RequestDedupCache.Operation.BOOK, parkingResult, booking,
+                    nbExecutions);
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (long requestId = 0; requestId < 100000; requestId++) {
+            requestDedupCache.execute(requestId % 512, RequestDedupCache.Operation.BOOK, parkingResult, booking,
+                    nbExecutions);
+        }
+        allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+
+        // check.
+        assertThat(nbExecutions.get()).isEqualTo(512);
+        assertThat(allocatedBytes).isLessThan(10000);
+    }
+}
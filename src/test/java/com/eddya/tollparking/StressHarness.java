@@ -0,0 +1,104 @@
+package com.eddya.tollparking;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * A jcstress-like harness (test purpose): the actors run concurrently on a fresh state, many times, and the outcome
+ * of each run (the actor results then the arbiter result, once the actors are done) is counted.
+ * The actor threads are started once and synchronized on a barrier, so the actors of a run start together.
+ */
+final class StressHarness {
+
+    /**
+     * The number of runs per scenario or rounds per test (e.g. -Dstress.iterations=100000, see the stress profile).
+     */
+    static final int ITERATIONS = Integer.getInteger("stress.iterations", 2000);
+
+    /**
+     * The outcomes and throughputs are only printed by the stress runs (i.e. when stress.iterations is set).
+     */
+    static final boolean REPORT = System.getProperty("stress.iterations") != null;
+
+    interface Actor<S> {
+        Object act(S state) throws Exception;
+    }
+
+    interface Arbiter<S> {
+        Object arbiter(S state) throws Exception;
+    }
+
+    private StressHarness() {
+    }
+
+    /**
+     * @param iterations   the number of runs
+     * @param stateFactory creates the state of each run
+     * @param arbiter      observes the state once the actors are done
+     * @param actors       the actors, one thread each
+     * @return the number of occurrences by outcome (e.g. "C20, null | 0")
+     */
+    @SafeVarargs
+    static <S> Map<String, Integer> run(int iterations, Callable<S> stateFactory, Arbiter<S> arbiter,
+                                        Actor<S>... actors) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(actors.length + 1);
+        Object[] states = new Object[1];
+        Object[] results = new Object[actors.length];
+        Thread[] threads = new Thread[actors.length];
+        for (int actorIdx = 0; actorIdx < actors.length; actorIdx++) {
+            int threadActorIdx = actorIdx;
+            threads[actorIdx] = new Thread(() -> {
+                try {
+                    for (int iteration = 0; iteration < iterations; iteration++) {
+                        barrier.await(); // start.
+                        @SuppressWarnings("unchecked") S state = (S) states[0];
+                        results[threadActorIdx] = act(actors[threadActorIdx], state);
+                        barrier.await(); // end.
+                    }
+                } catch (InterruptedException | BrokenBarrierException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "stress-actor-" + actorIdx);
+            threads[actorIdx].setDaemon(true);
+            threads[actorIdx].start();
+        }
+
+        Map<String, Integer> outcomes = new TreeMap<>();
+        try {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                S state = stateFactory.call();
+                states[0] = state;
+                barrier.await();
+                barrier.await();
+                StringBuilder outcome = new StringBuilder();
+                for (Object result : results) {
+                    outcome.append(outcome.length() == 0 ? "" : ", ").append(result);
+                }
+                outcome.append(" | ").append(arbiter.arbiter(state));
+                outcomes.merge(outcome.toString(), 1, Integer::sum);
+            }
+        } finally {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+        return outcomes;
+    }
+
+    static void report(String format, Object... args) {
+        if (REPORT) {
+            System.out.printf(format + "%n", args);
+        }
+    }
+
+    private static <S> Object act(Actor<S> actor, S state) {
+        try {
+            return actor.act(state);
+        } catch (Exception e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
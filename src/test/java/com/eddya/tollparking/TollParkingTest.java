@@ -4,6 +4,9 @@ import org.assertj.core.api.WithAssertions;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
 public class TollParkingTest implements WithAssertions {
 
   private final PricingPolicy pricingPolicy = new PerHourPricingPolicy(350);
@@ -90,12 +93,20 @@ public class TollParkingTest implements WithAssertions {
       throws ParkingSlotException, ParkingSlotBookerException {
     ParkingBuilder mockedParkingBuilder = Mockito.mock(ParkingBuilder.class);
     ParkingSlotBooker mockedParkingSlotBooker = Mockito.mock(ParkingSlotBooker.class);
-    Mockito.when(mockedParkingSlotBooker.releaseParkingSlot("C20")).thenReturn(7800L); // 7800s booking time.
+    Mockito.when(mockedParkingSlotBooker.releaseParkingSlot(Mockito.eq("C20"), Mockito.any(ParkingResult.class)))
+        .thenAnswer(invocation -> {
+          ParkingResult parkingResult = (ParkingResult) invocation.getArguments()[1];
+          parkingResult.reset(ParkingResultCode.OK);
+          parkingResult.setParkingSlot(new ParkingSlot("C20", ParkingSlotType.GASOLINE, new CurrentTimeSupplier()));
+          parkingResult.setBooking(1000L, 7800L); // 7800s booking time.
+          return ParkingResultCode.OK;
+        });
     TollParking tollParking = new TollParking(pricingPolicy, mockedParkingBuilder, mockedParkingSlotBooker);
 
     // check.
     long retBookingTime = tollParking.releaseParkingSlot("C20");
-    Mockito.verify(mockedParkingSlotBooker, Mockito.times(1)).releaseParkingSlot("C20");
+    Mockito.verify(mockedParkingSlotBooker, Mockito.times(1))
+        .releaseParkingSlot(Mockito.eq("C20"), Mockito.any(ParkingResult.class));
     assertThat(retBookingTime).isEqualTo(pricingPolicy.computeBillInCts(7800L));
   }
 
@@ -106,4 +117,158 @@ public class TollParkingTest implements WithAssertions {
     assertThatThrownBy(() -> tollParking.releaseParkingSlot(null)).isInstanceOf(IllegalArgumentException.class)
         .hasMessage("cannot release the parking slot, parkingSlotId field is null or empty.");
   }
-}
\ No newline at end of file
+
+  @Test public void getParkingSnapshotShouldReturnTheSnapshotOfTheParkingBuilder() {
+    ParkingBuilder mockedParkingBuilder = Mockito.mock(ParkingBuilder.class);
+    ParkingSlotBooker mockedParkingSlotBooker = Mockito.mock(ParkingSlotBooker.class);
+    ParkingSnapshot parkingSnapshot = ParkingSnapshot.empty();
+    Mockito.when(mockedParkingBuilder.getParkingSnapshot()).thenReturn(parkingSnapshot);
+    TollParking tollParking = new TollParking(pricingPolicy, mockedParkingBuilder, mockedParkingSlotBooker);
+
+    // check.
+    assertThat(tollParking.getParkingSnapshot()).isSameAs(parkingSnapshot);
+  }
+
+  @Test public void getBookingsOlderThanShouldReturnTheBookingsIndexedByStartTime()
+      throws ParkingBuilderException, ParkingSlotException {
+    ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+    TollParking tollParking = new TollParking(pricingPolicy, clock);
+    tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C20");
+    tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C21");
+    String oldest = tollParking.getParkingSlot(ParkingSlotType.GASOLINE);
+    clock.advance(24 * 3600);
+    tollParking.getParkingSlot(ParkingSlotType.GASOLINE);
+
+    // check.
+    assertThat(tollParking.getBookingsOlderThan(24 * 3600)).extracting(ParkingSlotState::getId).containsExactly(oldest);
+    assertThat(tollParking.getOldestBookings(5)).hasSize(2);
+    assertThatThrownBy(() -> tollParking.getBookingsOlderThan(-1)).isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("cannot get the old bookings, nbSeconds field is negative.");
+    assertThatThrownBy(() -> tollParking.createOverstayDetector(0, (booking, bookedTime) -> {
+    })).isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("cannot create the overstay detector, maxBookedTime field is not positive.");
+  }
+
+  @Test public void tryGetParkingSlotAndTryReleaseParkingSlotShouldReturnResultCodesInsteadOfThrowing()
+      throws ParkingBuilderException, ParkingSlotException {
+    ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+    TollParking tollParking = new TollParking(pricingPolicy, clock);
+    tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C20");
+    ParkingResult parkingResult = new ParkingResult();
+
+    // check.
+    assertThat(tollParking.tryGetParkingSlot(ParkingSlotType.GASOLINE, parkingResult)).isEqualTo(ParkingResultCode.OK);
+    assertThat(parkingResult.getParkingSlotId()).isEqualTo("C20");
+    assertThat(tollParking.tryGetParkingSlot(ParkingSlotType.GASOLINE, parkingResult))
+        .isEqualTo(ParkingResultCode.NO_VACANT_SLOT);
+    assertThat(parkingResult.getParkingSlotId()).isNull();
+    clock.advance(7800);
+    assertThat(tollParking.tryReleaseParkingSlot("C20", parkingResult)).isEqualTo(ParkingResultCode.OK);
+    assertThat(parkingResult.getBillInCts()).isEqualTo(pricingPolicy.computeBillInCts(7800L));
+    assertThat(tollParking.tryReleaseParkingSlot("C20", parkingResult)).isEqualTo(ParkingResultCode.NOT_BOOKED);
+    assertThat(tollParking.tryReleaseParkingSlot("C99", parkingResult)).isEqualTo(ParkingResultCode.NOT_BOOKED);
+    assertThat(parkingResult.getBillInCts()).isEqualTo(0);
+  }
+
+  @Test public void tryReleaseParkingSlotWithIllegalArgumentShouldThrowTheExpectedException() {
+    TollParking tollParking = new TollParking(pricingPolicy);
+
+    // check.
+    assertThatThrownBy(() -> tollParking.tryReleaseParkingSlot("C20", null)).isInstanceOf(
+        IllegalArgumentException.class)
+        .hasMessage("cannot release the parking slot, parkingResult field is null.");
+    assertThatThrownBy(() -> tollParking.tryGetParkingSlot(null, new ParkingResult())).isInstanceOf(
+        IllegalArgumentException.class)
+        .hasMessage("cannot get the parking slot, parkingSlotType field is null.");
+  }
+
+  @Test public void aVehicleShouldBeReleasedByItsKey()
+      throws ParkingBuilderException, ParkingSlotException, ParkingSlotBookerException {
+    ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+    TollParking tollParking = new TollParking(pricingPolicy, clock);
+    tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C20");
+    tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C21");
+    String parkingSlotId = tollParking.getParkingSlot(ParkingSlotType.GASOLINE, "AB-123-CD");
+    clock.advance(7800);
+
+    // check.
+    assertThat(tollParking.getParkingSlotIdByVehicle("ab123cd")).isEqualTo(parkingSlotId);
+    assertThatThrownBy(() -> tollParking.getParkingSlot(ParkingSlotType.GASOLINE, "AB-123-CD")).isInstanceOf(
+        ParkingSlotBookerException.class)
+        .hasMessage("cannot book a parking slot for vehicle AB-123-CD, it has already booked parking slot "
+            + parkingSlotId + ".");
+    assertThat(tollParking.releaseByVehicle("AB-123-CD")).isEqualTo(pricingPolicy.computeBillInCts(7800L));
+    assertThat(tollParking.getParkingSlotIdByVehicle("AB-123-CD")).isNull();
+    assertThat(tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE)).isEqualTo(2);
+    assertThatThrownBy(() -> tollParking.releaseByVehicle("AB-123-CD")).isInstanceOf(
+        ParkingSlotBookerException.class)
+        .hasMessage("cannot release the parking slot of vehicle AB-123-CD, it has no booked parking slot.");
+  }
+
+  @Test public void releasingByIdShouldAlsoForgetTheVehicle()
+      throws ParkingBuilderException, ParkingSlotException, ParkingSlotBookerException {
+    TollParking tollParking = new TollParking(pricingPolicy, new ManualEpochSecondClock(1000));
+    tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C20");
+    ParkingResult parkingResult = new ParkingResult();
+    tollParking.getParkingSlot(ParkingSlotType.GASOLINE, "T-0001");
+
+    // check.
+    assertThat(tollParking.tryGetParkingSlot(ParkingSlotType.GASOLINE, "T-0002", parkingResult))
+        .isEqualTo(ParkingResultCode.NO_VACANT_SLOT);
+    tollParking.releaseParkingSlot("C20");
+    assertThat(tollParking.tryReleaseByVehicle("T-0001", parkingResult)).isEqualTo(ParkingResultCode.NOT_BOOKED);
+    assertThat(tollParking.tryGetParkingSlot(ParkingSlotType.GASOLINE, "T-0001", parkingResult))
+        .isEqualTo(ParkingResultCode.OK);
+  }
+
+  @Test public void retriedRequestsShouldReturnTheOriginalResult()
+      throws ParkingBuilderException, ParkingSlotException, ParkingSlotBookerException {
+    ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+    TollParking tollParking = new TollParking(pricingPolicy, clock);
+    tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C20");
+    tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C21");
+    String parkingSlotId = tollParking.getParkingSlot(ParkingSlotType.GASOLINE, 1L);
+    clock.advance(300);
+    int bill = tollParking.releaseParkingSlot(parkingSlotId, 2L);
+    clock.advance(60);
+
+    // check: the retries neither book a second slot nor fail.
+    assertThat(tollParking.getParkingSlot(ParkingSlotType.GASOLINE, 1L)).isEqualTo(parkingSlotId);
+    assertThat(tollParking.releaseParkingSlot(parkingSlotId, 2L)).isEqualTo(bill)
+        .isEqualTo(pricingPolicy.computeBillInCts(300L));
+    assertThat(tollParking.getNbVacantParkingSlot(ParkingSlotType.GASOLINE)).isEqualTo(2);
+    assertThatThrownBy(() -> tollParking.releaseParkingSlot(parkingSlotId, 3L)).isInstanceOf(
+        ParkingSlotBookerException.class)
+        .hasMessage("cannot release parking slot " + parkingSlotId + ", it is not booked or does not exist.");
+    assertThatThrownBy(() -> tollParking.releaseParkingSlot(parkingSlotId, 1L)).isInstanceOf(
+        IllegalArgumentException.class)
+        .hasMessage("cannot execute request 1, the identifier has already been used by another operation.");
+  }
+
+  @Test public void theEnergyDeliveredShouldBeBilledAtRelease()
+      throws ParkingBuilderException, ParkingSlotException, ParkingSlotBookerException, IOException {
+    ManualEpochSecondClock clock = new ManualEpochSecondClock(1000);
+    TollParking tollParking = new TollParking(new EnergyPricingPolicy(pricingPolicy, 30), clock);
+    tollParking.addParkingSlot(ParkingSlotType.ELECTRIC_20KW, "E201");
+    tollParking.addParkingSlot(ParkingSlotType.GASOLINE, "C20");
+    tollParking.getParkingSlot(ParkingSlotType.ELECTRIC_20KW);
+    tollParking.getParkingSlot(ParkingSlotType.GASOLINE);
+    StringBuilder samples = new StringBuilder("E201,not a sample\nC20,1000000,7000\n");
+    for (long sampleTime = 1_000_000; sampleTime <= 4_600_000; sampleTime += 10_000) {
+      samples.append("E201,").append(sampleTime).append(",20000\n"); // 20kW during 1h.
+    }
+    clock.advance(7800);
+    ParkingResult parkingResult = new ParkingResult();
+
+    // check.
+    assertThat(tollParking.ingestPowerSamples(new ByteArrayInputStream(samples.toString().getBytes())))
+        .isEqualTo(361);
+    assertThat(tollParking.getEnergyInWh("E201")).isEqualTo(20000);
+    assertThat(tollParking.recordPowerSample("C20", 4_610_000, 7000)).isFalse();
+    assertThat(tollParking.tryReleaseParkingSlot("E201", parkingResult)).isEqualTo(ParkingResultCode.OK);
+    assertThat(parkingResult.getEnergyInWh()).isEqualTo(20000);
+    assertThat(parkingResult.getBillInCts()).isEqualTo(pricingPolicy.computeBillInCts(7800L) + 20 * 30);
+    assertThat(tollParking.recordPowerSample("E201", 4_610_000, 20000)).isFalse();
+    assertThat(tollParking.releaseParkingSlot("C20")).isEqualTo(pricingPolicy.computeBillInCts(7800L));
+  }
+}
@@ -0,0 +1,52 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class VehicleIndexTest implements WithAssertions {
+
+    private static final EpochSecondClock CLOCK = new ManualEpochSecondClock(1000);
+
+    private static ParkingSlot aParkingSlot(int slotIdx) {
+        return new ParkingSlot("GAZ" + slotIdx, ParkingSlotType.GASOLINE, CLOCK);
+    }
+
+    @Test
+    public void getShouldReturnThePutParkingSlotUntilItIsRemoved() {
+        VehicleIndex vehicleIndex = new VehicleIndex();
+        ParkingSlot parkingSlot = aParkingSlot(1);
+        vehicleIndex.put(42L, parkingSlot);
+
+        // check.
+        assertThat(vehicleIndex.get(42L)).isSameAs(parkingSlot);
+        assertThat(vehicleIndex.get(43L)).isNull();
+        vehicleIndex.remove(42L);
+        assertThat(vehicleIndex.get(42L)).isNull();
+        assertThat(vehicleIndex.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void theIndexShouldGrowAndReuseTheRemovedEntries() {
+        VehicleIndex vehicleIndex = new VehicleIndex();
+        ParkingSlot[] parkingSlots = new ParkingSlot[1000];
+        for (int slotIdx = 0; slotIdx < parkingSlots.length; slotIdx++) {
+            parkingSlots[slotIdx] = aParkingSlot(slotIdx);
+            vehicleIndex.put(slotIdx + 1, parkingSlots[slotIdx]);
+        }
+        for (int round = 0; round < 10; round++) { // churn: remove then put back half of the vehicles.
+            for (int slotIdx = 0; slotIdx < parkingSlots.length; slotIdx += 2) {
+                vehicleIndex.remove(slotIdx + 1);
+            }
+            for (int slotIdx = 0; slotIdx < parkingSlots.length; slotIdx += 2) {
+                vehicleIndex.put(slotIdx + 1, parkingSlots[slotIdx]);
+            }
+        }
+
+        // check.
+        assertThat(vehicleIndex.size()).isEqualTo(1000);
+        for (int slotIdx = 0; slotIdx < parkingSlots.length; slotIdx++) {
+            assertThat(vehicleIndex.get(slotIdx + 1)).isSameAs(parkingSlots[slotIdx]);
+        }
+        assertThat(vehicleIndex.get(1001)).isNull();
+    }
+}
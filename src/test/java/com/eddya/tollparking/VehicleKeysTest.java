@@ -0,0 +1,37 @@
+package com.eddya.tollparking;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class VehicleKeysTest implements WithAssertions {
+
+    @Test
+    public void encodeShouldIgnoreTheCaseAndTheSeparators() {
+        assertThat(VehicleKeys.encode("ab-123-cd")).isEqualTo(VehicleKeys.encode("AB 123.CD"));
+        assertThat(VehicleKeys.encode("AB123CD")).isEqualTo(VehicleKeys.encode("ab-123-cd"));
+    }
+
+    @Test
+    public void encodeShouldDistinguishTheKeys() {
+        assertThat(VehicleKeys.encode("A1")).isNotEqualTo(VehicleKeys.encode("A01"));
+        assertThat(VehicleKeys.encode("0")).isNotEqualTo(VehicleKeys.encode("00"));
+        assertThat(VehicleKeys.encode("AB123CD")).isNotEqualTo(VehicleKeys.encode("AB123CE"));
+    }
+
+    @Test
+    public void encodeShouldReturnAPositiveValueUpToTheMaximumLength() {
+        assertThat(VehicleKeys.encode("0")).isGreaterThan(0);
+        assertThat(VehicleKeys.encode("ZZZZZZZZZZZZ")).isGreaterThan(0);
+        assertThat(VehicleKeys.encode("123456789012")).isGreaterThan(0);
+    }
+
+    @Test
+    public void encodeWithAnInvalidKeyShouldThrowTheExpectedException() {
+        assertThatThrownBy(() -> VehicleKeys.encode("ZZZZZZZZZZZZZ")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("cannot encode vehicle key ZZZZZZZZZZZZZ, it is longer than 12 characters.");
+        assertThatThrownBy(() -> VehicleKeys.encode("AB_12")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("cannot encode vehicle key AB_12, unexpected character '_'.");
+        assertThatThrownBy(() -> VehicleKeys.encode(" - ")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("cannot encode vehicle key  - , it is empty.");
+    }
+}
@@ -0,0 +1,129 @@
+package com.eddya.tollparking.simulation;
+
+import com.eddya.tollparking.FixedAmountPlusPerHourPricingPolicy;
+import com.eddya.tollparking.OccupancyPricingPolicy;
+import com.eddya.tollparking.ParkingSlotType;
+import com.eddya.tollparking.PerHourPricingPolicy;
+import com.eddya.tollparking.PricingPolicy;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class ParkingSimulatorTest implements WithAssertions {
+
+    private static final DwellTimeHistogram DWELL_TIME_HISTOGRAM = new DwellTimeHistogram(
+            new long[]{1800, 3600, 4 * 3600, 10 * 3600}, new double[]{2, 4, 3, 1});
+
+    private static SimulationScenario aScenario(long seed) {
+        return new SimulationScenario("test", 3, 900, seed)
+                .addParkingSlots(ParkingSlotType.GASOLINE, 50,
+                        ArrivalProfile.rushHours(5, 60, 8, 9, 17, 18), DWELL_TIME_HISTOGRAM)
+                .addParkingSlots(ParkingSlotType.ELECTRIC_20KW, 5, ArrivalProfile.constant(3), DWELL_TIME_HISTOGRAM);
+    }
+
+    @Test
+    public void runShouldReportConsistentFigures() throws SimulationException {
+        SimulationReport report = new ParkingSimulator(1).run(aScenario(42), "perHour", new PerHourPricingPolicy(200));
+
+        // check.
+        assertThat(report.getNbArrivals(ParkingSlotType.GASOLINE)).isGreaterThan(0);
+        assertThat(report.getNbRejections(ParkingSlotType.GASOLINE))
+                .isLessThanOrEqualTo(report.getNbArrivals(ParkingSlotType.GASOLINE));
+        assertThat(report.getRejectionRate(ParkingSlotType.ELECTRIC_20KW)).isBetween(0.0, 1.0);
+        assertThat(report.getNbArrivals(ParkingSlotType.ELECTRIC_50KW)).isEqualTo(0);
+        assertThat(report.getRejectionRate(ParkingSlotType.ELECTRIC_50KW)).isEqualTo(0);
+        assertThat(report.getOccupancyCurve(ParkingSlotType.GASOLINE)).hasSize(3 * 96);
+        for (int nbBookedSlot : report.getOccupancyCurve(ParkingSlotType.GASOLINE)) {
+            assertThat(nbBookedSlot).isBetween(0, 50);
+        }
+        assertThat(report.getRevenueInCts()).isEqualTo(report.getRevenueInCts(ParkingSlotType.GASOLINE)
+                + report.getRevenueInCts(ParkingSlotType.ELECTRIC_20KW));
+        assertThat(report.getNbOperations()).isGreaterThan(report.getNbArrivals(ParkingSlotType.GASOLINE));
+        assertThat(report.getThroughput()).isGreaterThan(0);
+    }
+
+    @Test
+    public void rushHoursShouldSaturateAnUndersizedParking() throws SimulationException {
+        SimulationScenario scenario = new SimulationScenario("undersized", 1, 3600, 7)
+                .addParkingSlots(ParkingSlotType.GASOLINE, 2,
+                        ArrivalProfile.rushHours(0, 100, 8), DWELL_TIME_HISTOGRAM);
+        SimulationReport report = new ParkingSimulator(1).run(scenario, "perHour", new PerHourPricingPolicy(200));
+
+        // check.
+        assertThat(report.getRejectionRate(ParkingSlotType.GASOLINE)).isGreaterThan(0.5);
+        assertThat(report.getOccupancyCurve(ParkingSlotType.GASOLINE)[9]).isEqualTo(2);
+        assertThat(report.getOccupancyCurve(ParkingSlotType.GASOLINE)[7]).isEqualTo(0);
+    }
+
+    @Test
+    public void runAllShouldRunEachScenarioWithEachPolicyAndBeDeterministic() throws SimulationException {
+        Map<String, Supplier<PricingPolicy>> pricingPolicies = new LinkedHashMap<>();
+        pricingPolicies.put("perHour", () -> new PerHourPricingPolicy(200));
+        pricingPolicies.put("fixedPlusPerHour", () -> new FixedAmountPlusPerHourPricingPolicy(500, 150));
+        List<SimulationReport> reports = new ParkingSimulator(4).runAll(
+                Arrays.asList(aScenario(1), aScenario(2)), pricingPolicies);
+
+        // check.
+        assertThat(reports).hasSize(4);
+        assertThat(reports.get(1).getPricingPolicyName()).isEqualTo("fixedPlusPerHour");
+        SimulationReport sequential = new ParkingSimulator(1).run(aScenario(2), "perHour", new PerHourPricingPolicy(200));
+        assertThat(reports.get(2).getRevenueInCts()).isEqualTo(sequential.getRevenueInCts());
+        assertThat(reports.get(2).getOccupancyCurve(ParkingSlotType.GASOLINE))
+                .isEqualTo(sequential.getOccupancyCurve(ParkingSlotType.GASOLINE));
+        // same traffic, the fixed amount is only added.
+        assertThat(reports.get(0).getNbArrivals(ParkingSlotType.GASOLINE))
+                .isEqualTo(reports.get(1).getNbArrivals(ParkingSlotType.GASOLINE));
+    }
+
+    @Test
+    public void anOccupancyPolicyShouldSurgeOnTheSimulatedOccupancy() throws SimulationException {
+        SimulationScenario scenario = new SimulationScenario("undersized", 2, 900, 7)
+                .addParkingSlots(ParkingSlotType.GASOLINE, 10,
+                        ArrivalProfile.rushHours(1, 100, 8, 17), DWELL_TIME_HISTOGRAM);
+        Map<String, Supplier<PricingPolicy>> pricingPolicies = new LinkedHashMap<>();
+        pricingPolicies.put("perHour", () -> new PerHourPricingPolicy(200));
+        pricingPolicies.put("occupancy", () -> new OccupancyPricingPolicy(200, 0.5, 3));
+        List<SimulationReport> reports = new ParkingSimulator(2).runAll(
+                Arrays.asList(scenario, aScenario(3)), pricingPolicies);
+
+        // check: same traffic, the saturated hours are billed more.
+        assertThat(reports).hasSize(4);
+        assertThat(reports.get(1).getNbArrivals(ParkingSlotType.GASOLINE))
+                .isEqualTo(reports.get(0).getNbArrivals(ParkingSlotType.GASOLINE));
+        assertThat(reports.get(1).getRevenueInCts()).isGreaterThan(reports.get(0).getRevenueInCts());
+        assertThat(reports.get(3).getRevenueInCts()).isGreaterThanOrEqualTo(reports.get(2).getRevenueInCts());
+    }
+
+    @Test
+    public void nextArrivalShouldFollowTheArrivalRate() {
+        Random random = new Random(3);
+        long time = 0;
+        int nbArrivals = 0;
+        while ((time = ParkingSimulator.nextArrival(ArrivalProfile.constant(120), time, random)) < 100 * 3600) {
+            nbArrivals++;
+        }
+
+        // check.
+        assertThat(nbArrivals).isBetween(11000, 13000);
+        assertThat(ParkingSimulator.nextArrival(ArrivalProfile.constant(0), 0, random)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void dwellTimeHistogramShouldSampleWithinTheBuckets() {
+        DwellTimeHistogram histogram = new DwellTimeHistogram(new long[]{60, 120}, new double[]{0, 1});
+        Random random = new Random(5);
+
+        // check.
+        for (int drawIdx = 0; drawIdx < 1000; drawIdx++) {
+            assertThat(histogram.sample(random)).isBetween(61L, 120L);
+        }
+        assertThatThrownBy(() -> new DwellTimeHistogram(new long[]{60, 30}, new double[]{1, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}